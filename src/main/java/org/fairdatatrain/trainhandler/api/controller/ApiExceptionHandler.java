@@ -24,6 +24,7 @@ package org.fairdatatrain.trainhandler.api.controller;
 
 import org.fairdatatrain.trainhandler.api.dto.error.ErrorDTO;
 import org.fairdatatrain.trainhandler.exception.CannotPerformException;
+import org.fairdatatrain.trainhandler.exception.JobSecurityException;
 import org.fairdatatrain.trainhandler.exception.NotFoundException;
 import org.fairdatatrain.trainhandler.exception.NotImplementedException;
 import org.springframework.http.HttpStatus;
@@ -75,6 +76,17 @@ public class ApiExceptionHandler {
         );
     }
 
+    @ExceptionHandler(JobSecurityException.class)
+    public ResponseEntity<ErrorDTO> handleJobSecurityException(JobSecurityException exception) {
+        return new ResponseEntity<>(
+                new ErrorDTO(
+                        "HTTP-403-Forbidden",
+                        exception.getMessage()
+                ),
+                HttpStatus.FORBIDDEN
+        );
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ErrorDTO> handleValidationException(ValidationException exception) {
         return new ResponseEntity<>(
@@ -100,7 +100,7 @@ public class JobArtifactController {
             @RequestBody @Valid JobArtifactCreateDTO reqDto
     ) throws NotFoundException, JobSecurityException {
         final JobArtifactDTO dto = jobArtifactService.createArtifact(runUuid, jobUuid, reqDto);
-        jobEventService.notify(jobUuid);
+        jobEventService.notify(runUuid, jobUuid);
         return dto;
     }
 }
@@ -22,11 +22,16 @@
  */
 package org.fairdatatrain.trainhandler.api.controller;
 
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.fairdatatrain.trainhandler.api.dto.job.*;
 import org.fairdatatrain.trainhandler.config.DispatcherConfig;
 import org.fairdatatrain.trainhandler.exception.NotFoundException;
+import org.fairdatatrain.trainhandler.service.async.JsonSnapshot;
+import org.fairdatatrain.trainhandler.service.async.PollMode;
 import org.fairdatatrain.trainhandler.service.job.JobService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -57,16 +62,22 @@ public class JobController {
             path = "/{runUuid}/jobs/{jobUuid}",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public DeferredResult<JobDTO> pollJob(
+    @ApiResponse(
+            responseCode = "200",
+            content = @Content(schema = @Schema(oneOf = {JobDTO.class, JobDeltaDTO.class}))
+    )
+    public DeferredResult<byte[]> pollJob(
             @PathVariable UUID runUuid,
             @PathVariable UUID jobUuid,
-            @RequestParam(required = false, defaultValue = "0") Long after
+            @RequestParam(required = false, defaultValue = "0") Long after,
+            @RequestParam(required = false, defaultValue = "false") boolean delta
     ) throws NotFoundException {
-        final JobDTO currentJob = jobService.getSingle(runUuid, jobUuid);
-        final DeferredResult<JobDTO> result = new DeferredResult<>(
-                config.getPolling().getTimeoutMs(), currentJob
+        final PollMode mode = delta ? PollMode.DELTA : PollMode.FULL;
+        final JsonSnapshot currentJob = jobService.getSnapshot(runUuid, jobUuid, after, mode);
+        final DeferredResult<byte[]> result = new DeferredResult<>(
+                config.getPolling().getTimeoutMs(), currentJob.getJson()
         );
-        jobService.poll(jobUuid, result, after, currentJob);
+        jobService.poll(jobUuid, result, after, currentJob, mode);
         return result;
     }
 }
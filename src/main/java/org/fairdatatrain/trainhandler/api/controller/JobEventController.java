@@ -30,21 +30,33 @@ import org.fairdatatrain.trainhandler.exception.NotFoundException;
 import org.fairdatatrain.trainhandler.service.job.event.JobEventService;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 import java.util.List;
 import java.util.UUID;
 
 @Tag(name = "Runs")
 @PreAuthorize("hasRole('user')")
 @RestController
+@Validated
 @RequestMapping("/runs")
 @RequiredArgsConstructor
 public class JobEventController {
 
     public static final String EVENT_CALLBACK_LOCATION = "/{runUuid}/jobs/{jobUuid}/events";
 
+    public static final String EVENT_BATCH_CALLBACK_LOCATION = "/{runUuid}/jobs/{jobUuid}/events/batch";
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final JobEventService jobEventService;
 
     @GetMapping(
@@ -53,9 +65,12 @@ public class JobEventController {
     )
     public List<JobEventDTO> getJobEvents(
             @PathVariable UUID runUuid,
-            @PathVariable UUID jobUuid
+            @PathVariable UUID jobUuid,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean tail
     ) throws NotFoundException {
-        return jobEventService.getEvents(runUuid, jobUuid);
+        return jobEventService.getEvents(runUuid, jobUuid, after, limit, tail);
     }
 
     @PostMapping(
@@ -69,7 +84,22 @@ public class JobEventController {
             @RequestBody @Valid JobEventCreateDTO reqDto
     ) throws NotFoundException, JobSecurityException {
         final JobEventDTO dto = jobEventService.createEvent(runUuid, jobUuid, reqDto);
-        jobEventService.notify(jobUuid);
+        jobEventService.notify(runUuid, jobUuid);
         return dto;
     }
+
+    @PostMapping(
+            path = EVENT_BATCH_CALLBACK_LOCATION,
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public List<JobEventDTO> addJobEvents(
+            @PathVariable UUID runUuid,
+            @PathVariable UUID jobUuid,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid JobEventCreateDTO> reqDtos
+    ) throws NotFoundException, JobSecurityException {
+        final List<JobEventDTO> dtos = jobEventService.createEvents(runUuid, jobUuid, reqDtos);
+        jobEventService.notify(runUuid, jobUuid);
+        return dtos;
+    }
 }
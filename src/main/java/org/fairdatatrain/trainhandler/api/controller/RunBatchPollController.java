@@ -0,0 +1,70 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.api.controller;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.service.async.SnapshotCache;
+import org.fairdatatrain.trainhandler.service.run.RunWatchService;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Tag(name = "Plans")
+@PreAuthorize("hasRole('user')")
+@RestController
+@RequestMapping("/plans")
+@RequiredArgsConstructor
+public class RunBatchPollController {
+
+    private final RunWatchService runWatchService;
+
+    private final DispatcherConfig dispatcherConfig;
+
+    @PostMapping(
+            path = "/{uuid}/runs/poll",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponse(
+            responseCode = "200",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = RunDTO.class))))
+    public DeferredResult<byte[]> pollPlanRuns(
+            @PathVariable UUID uuid, @RequestBody Map<UUID, Long> versions) {
+        final DeferredResult<byte[]> result = new DeferredResult<>(
+                dispatcherConfig.getPolling().getTimeoutMs(), SnapshotCache.toJsonArray(List.of())
+        );
+        runWatchService.pollBatch(uuid, versions, result);
+        return result;
+    }
+}
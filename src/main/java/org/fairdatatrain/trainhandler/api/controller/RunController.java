@@ -27,7 +27,6 @@ import lombok.RequiredArgsConstructor;
 import org.fairdatatrain.trainhandler.api.dto.run.RunCreateDTO;
 import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
 import org.fairdatatrain.trainhandler.api.dto.run.RunUpdateDTO;
-import org.fairdatatrain.trainhandler.config.DispatcherConfig;
 import org.fairdatatrain.trainhandler.exception.CannotPerformException;
 import org.fairdatatrain.trainhandler.exception.NotFoundException;
 import org.fairdatatrain.trainhandler.service.async.AsyncEventPublisher;
@@ -36,7 +35,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
 import java.util.UUID;
@@ -52,8 +50,6 @@ public class RunController {
 
     private final AsyncEventPublisher asyncEventPublisher;
 
-    private final DispatcherConfig dispatcherConfig;
-
     @PostMapping(
             path = "",
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -64,22 +60,6 @@ public class RunController {
         return runService.create(reqDto);
     }
 
-    @GetMapping(
-            path = "/{uuid}",
-            produces = MediaType.APPLICATION_JSON_VALUE
-    )
-    public DeferredResult<RunDTO> pollRun(
-            @PathVariable UUID uuid,
-            @RequestParam(required = false, defaultValue = "0") Long after
-    ) throws NotFoundException {
-        final RunDTO currentRun = runService.getSingle(uuid);
-        final DeferredResult<RunDTO> result = new DeferredResult<>(
-                dispatcherConfig.getPolling().getTimeoutMs(), currentRun
-        );
-        runService.poll(uuid, result, after, currentRun);
-        return result;
-    }
-
     @PutMapping(
             path = "/{uuid}",
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -0,0 +1,102 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.api.controller;
+
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDeltaDTO;
+import org.fairdatatrain.trainhandler.exception.NotFoundException;
+import org.fairdatatrain.trainhandler.service.job.JobService;
+import org.fairdatatrain.trainhandler.service.run.RunService;
+import org.fairdatatrain.trainhandler.service.run.RunWatchService;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@Tag(name = "Runs")
+@PreAuthorize("hasRole('user')")
+@RestController
+@RequestMapping("/runs")
+@RequiredArgsConstructor
+public class RunWatchController {
+
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final RunService runService;
+
+    private final RunWatchService runWatchService;
+
+    private final JobService jobService;
+
+    @GetMapping(
+            path = "/{uuid}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ApiResponse(
+            responseCode = "200",
+            content = @Content(schema = @Schema(oneOf = {RunDTO.class, RunDeltaDTO.class}))
+    )
+    public DeferredResult<byte[]> pollRun(
+            @PathVariable UUID uuid,
+            @RequestParam(required = false, defaultValue = "0") Long after,
+            @RequestParam(required = false, defaultValue = "false") boolean delta
+    ) throws NotFoundException {
+        return runWatchService.poll(uuid, after, delta);
+    }
+
+    @GetMapping(
+            path = "/{uuid}/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter streamRun(
+            @PathVariable UUID uuid,
+            @RequestParam(required = false, defaultValue = "0") Long after,
+            @RequestHeader(name = LAST_EVENT_ID, required = false) Long lastEventId
+    ) throws NotFoundException {
+        final RunDTO currentRun = runService.getSingle(uuid);
+        return runWatchService.stream(uuid, lastEventId == null ? after : lastEventId, currentRun);
+    }
+
+    @GetMapping(
+            path = "/{runUuid}/jobs/{jobUuid}/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter streamJob(
+            @PathVariable UUID runUuid,
+            @PathVariable UUID jobUuid,
+            @RequestParam(required = false, defaultValue = "0") Long after,
+            @RequestHeader(name = LAST_EVENT_ID, required = false) Long lastEventId
+    ) throws NotFoundException {
+        final JobDTO currentJob = jobService.getSingle(runUuid, jobUuid);
+        return jobService.stream(jobUuid, lastEventId == null ? after : lastEventId, currentJob);
+    }
+}
@@ -23,6 +23,7 @@
 package org.fairdatatrain.trainhandler.api.dto.job;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -34,6 +35,7 @@ import java.time.Instant;
 @NoArgsConstructor
 @Getter
 @Setter
+@Builder
 public class JobArtifactCreateDTO {
 
     @NotNull
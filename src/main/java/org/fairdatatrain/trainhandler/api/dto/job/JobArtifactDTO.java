@@ -50,4 +50,6 @@ public class JobArtifactDTO {
     private String createdAt;
 
     private String updatedAt;
+
+    private Long version;
 }
@@ -45,4 +45,6 @@ public class JobEventDTO {
     private String createdAt;
 
     private String updatedAt;
+
+    private Long version;
 }
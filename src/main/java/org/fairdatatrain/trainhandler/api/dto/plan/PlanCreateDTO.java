@@ -52,4 +52,7 @@ public class PlanCreateDTO {
 
     @NotNull
     private Boolean publishArtifacts = false;
+
+    @NotNull
+    private Integer priority = 0;
 }
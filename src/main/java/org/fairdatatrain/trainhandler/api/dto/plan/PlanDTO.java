@@ -47,6 +47,8 @@ public class PlanDTO {
 
     private Boolean publishArtifacts;
 
+    private Integer priority;
+
     private String createdAt;
 
     private String updatedAt;
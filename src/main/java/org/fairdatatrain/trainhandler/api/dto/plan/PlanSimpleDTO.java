@@ -49,4 +49,6 @@ public class PlanSimpleDTO {
     private List<PlanTargetDTO> targets;
 
     private Boolean publishArtifacts;
+
+    private Integer priority;
 }
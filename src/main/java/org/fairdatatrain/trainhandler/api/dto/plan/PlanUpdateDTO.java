@@ -51,4 +51,6 @@ public class PlanUpdateDTO {
     private String note;
 
     private Boolean publishArtifacts = false;
+
+    private Integer priority;
 }
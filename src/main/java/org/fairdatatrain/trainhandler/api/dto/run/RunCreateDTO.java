@@ -23,6 +23,7 @@
 package org.fairdatatrain.trainhandler.api.dto.run;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -36,6 +37,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @Getter
 @Setter
+@Builder
 public class RunCreateDTO {
 
     @NotBlank
@@ -48,4 +50,6 @@ public class RunCreateDTO {
     private UUID planUuid;
 
     private Instant shouldStartAt;
+
+    private Integer priority;
 }
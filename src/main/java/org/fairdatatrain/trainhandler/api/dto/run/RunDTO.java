@@ -49,6 +49,8 @@ public class RunDTO {
 
     private List<JobSimpleDTO> jobs;
 
+    private Integer priority;
+
     private String shouldStartAt;
 
     private String startedAt;
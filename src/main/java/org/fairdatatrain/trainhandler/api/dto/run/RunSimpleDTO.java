@@ -46,6 +46,14 @@ public class RunSimpleDTO {
 
     private UUID planUuid;
 
+    private Integer priority;
+
+    private Integer queuePosition;
+
+    private String estimatedStartAt;
+
+    private RunProgressDTO progress;
+
     private String shouldStartAt;
 
     private String startedAt;
@@ -55,4 +63,6 @@ public class RunSimpleDTO {
     private String createdAt;
 
     private String updatedAt;
+
+    private Long version;
 }
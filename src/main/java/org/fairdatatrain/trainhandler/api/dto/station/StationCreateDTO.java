@@ -59,6 +59,10 @@ public class StationCreateDTO {
     @NotNull
     private List<UUID> trainTypeUuids;
 
+    private Integer maxConcurrentJobs;
+
+    private Double dispatchRate;
+
     @NotNull
     private Boolean fetch = false;
 }
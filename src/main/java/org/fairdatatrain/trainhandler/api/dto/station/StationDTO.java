@@ -25,6 +25,7 @@ package org.fairdatatrain.trainhandler.api.dto.station;
 import lombok.*;
 import org.fairdatatrain.trainhandler.api.dto.stationdirectory.StationDirectorySimpleDTO;
 import org.fairdatatrain.trainhandler.api.dto.traintype.TrainTypeSimpleDTO;
+import org.fairdatatrain.trainhandler.data.model.enums.StationHealth;
 import org.fairdatatrain.trainhandler.data.model.enums.SyncItemStatus;
 
 import java.util.List;
@@ -57,6 +58,16 @@ public class StationDTO {
 
     private Boolean softDeleted;
 
+    private StationHealth health;
+
+    private Long lastLatencyMs;
+
+    private String lastProbedAt;
+
+    private Integer maxConcurrentJobs;
+
+    private Double dispatchRate;
+
     private StationDirectorySimpleDTO directory;
 
     private List<TrainTypeSimpleDTO> types;
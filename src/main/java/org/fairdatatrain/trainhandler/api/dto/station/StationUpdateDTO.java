@@ -59,6 +59,10 @@ public class StationUpdateDTO {
     @NotNull
     private List<UUID> trainTypeUuids;
 
+    private Integer maxConcurrentJobs;
+
+    private Double dispatchRate;
+
     private Boolean softDeleted;
 
     @NotNull
@@ -22,6 +22,8 @@
  */
 package org.fairdatatrain.trainhandler.api.filter;
 
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
@@ -33,8 +35,10 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 
 @Component
+@RequiredArgsConstructor
 public class CorsFilter extends OncePerRequestFilter {
 
     static final String DELIMITER = ",";
@@ -62,6 +66,8 @@ public class CorsFilter extends OncePerRequestFilter {
             HttpHeaders.LOCATION
     );
 
+    private final DispatcherConfig config;
+
     @Override
     public void doFilterInternal(
             @Nullable final HttpServletRequest request,
@@ -69,7 +75,17 @@ public class CorsFilter extends OncePerRequestFilter {
             final FilterChain filterChain
     ) throws IOException, ServletException {
         logger.debug("Setting CORS headers (via request filter)");
-        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        final List<String> allowedOrigins = config.getCors().getAllowedOrigins();
+        if (allowedOrigins.isEmpty()) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        }
+        else {
+            final String origin = request == null ? null : request.getHeader(HttpHeaders.ORIGIN);
+            if (origin != null && allowedOrigins.contains(origin)) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+        }
         response.setHeader(HttpHeaders.ALLOW, ALLOWED_METHODS);
         response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, ALLOWED_METHODS);
         response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, ALLOWED_HEADERS);
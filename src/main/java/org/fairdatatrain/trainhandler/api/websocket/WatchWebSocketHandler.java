@@ -0,0 +1,94 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.api.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.api.dto.watch.WatchAction;
+import org.fairdatatrain.trainhandler.api.dto.watch.WatchCommandDTO;
+import org.fairdatatrain.trainhandler.service.async.WatchNotificationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+
+import static java.lang.String.format;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WatchWebSocketHandler extends TextWebSocketHandler {
+
+    public static final String WATCH_LOCATION = "/watch";
+
+    private final WatchNotificationListener watchNotificationListener;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        watchNotificationListener.open(session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        final WatchCommandDTO command;
+        try {
+            command = objectMapper.readValue(message.getPayload(), WatchCommandDTO.class);
+        }
+        catch (IOException exception) {
+            log.info(format("Invalid watch command in session %s", session.getId()));
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+        if (command.getAction() == null || command.getUuids() == null) {
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+        if (command.getAction() == WatchAction.SUBSCRIBE) {
+            if (!isAuthorized(session)) {
+                log.info(format("Rejected subscription of unauthorized session %s", session.getId()));
+                session.close(CloseStatus.POLICY_VIOLATION);
+                return;
+            }
+            watchNotificationListener.subscribe(session, command.getUuids());
+        }
+        else {
+            watchNotificationListener.unsubscribe(session, command.getUuids());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        watchNotificationListener.close(session);
+    }
+
+    private static boolean isAuthorized(WebSocketSession session) {
+        final Object authorized = session.getAttributes().get(WatchHandshakeInterceptor.AUTHORIZED_ATTRIBUTE);
+        return Boolean.TRUE.equals(authorized);
+    }
+}
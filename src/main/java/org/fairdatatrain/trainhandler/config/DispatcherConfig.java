@@ -26,7 +26,13 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.fairdatatrain.trainhandler.config.properties.ClusterProperties;
+import org.fairdatatrain.trainhandler.config.properties.CorsProperties;
 import org.fairdatatrain.trainhandler.config.properties.DispatchProperties;
+import org.fairdatatrain.trainhandler.config.properties.HealthProperties;
+import org.fairdatatrain.trainhandler.config.properties.HttpProperties;
+import org.fairdatatrain.trainhandler.config.properties.JournalProperties;
+import org.fairdatatrain.trainhandler.config.properties.NotificationProperties;
 import org.fairdatatrain.trainhandler.config.properties.PollingProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -44,4 +50,16 @@ public class DispatcherConfig {
     private DispatchProperties dispatch;
 
     private PollingProperties polling;
+
+    private ClusterProperties cluster = new ClusterProperties();
+
+    private NotificationProperties notification = new NotificationProperties();
+
+    private HttpProperties http = new HttpProperties();
+
+    private HealthProperties health = new HealthProperties();
+
+    private JournalProperties journal = new JournalProperties();
+
+    private CorsProperties cors = new CorsProperties();
 }
@@ -22,26 +22,87 @@
  */
 package org.fairdatatrain.trainhandler.config;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.config.properties.HttpPoolProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
-import java.time.Duration;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
 
+import static java.lang.String.format;
+
+/**
+ * HTTP clients of the train handler, one per workload, so that a slow
+ * station directory crawl cannot exhaust the connections used to dispatch
+ * jobs. Every workload has its own connection provider, which keeps a pool
+ * per destination host (optionally with a host-specific connection limit)
+ * and publishes its pool metrics under {@code reactor.netty.connection.provider}
+ * tagged with the workload name.
+ */
 @Configuration
+@RequiredArgsConstructor
 public class HttpClientConfig {
-    private static final long TIMEOUT = 5;
+
+    private final DispatcherConfig config;
 
     @Bean
-    public WebClient webClient() {
-        final HttpClient client = HttpClient.create()
+    public WebClient dispatchWebClient() {
+        return webClient("dispatch", config.getHttp().getDispatch());
+    }
+
+    @Bean
+    public WebClient indexerWebClient() {
+        return webClient("indexer", config.getHttp().getIndexer());
+    }
+
+    private static WebClient webClient(String name, HttpPoolProperties properties) {
+        final ConnectionProvider.Builder provider = ConnectionProvider.builder(name)
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .metrics(true);
+        properties.getMaxConnectionsPerHost().forEach((host, maxConnections) -> {
+            provider.forRemoteHost(remoteAddress(host), spec -> {
+                spec.maxConnections(maxConnections);
+            });
+        });
+        HttpClient client = HttpClient.create(provider.build())
                 .followRedirect(true)
-                .responseTimeout(Duration.ofSeconds(TIMEOUT));
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .doOnConnected(connection -> {
+                    connection.addHandlerLast(new ReadTimeoutHandler(
+                            properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS
+                    ));
+                });
+        if (properties.getHttp2()) {
+            // HTTP/2 is negotiated via ALPN, so it applies to HTTPS destinations only
+            client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
 
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(client))
                 .build();
     }
+
+    private static InetSocketAddress remoteAddress(String host) {
+        final URI uri = URI.create("//" + host);
+        if (uri.getHost() == null || uri.getPort() < 0) {
+            throw new IllegalStateException(format(
+                    "Expected host:port for connection limit, got '%s'", host
+            ));
+        }
+        return InetSocketAddress.createUnresolved(uri.getHost(), uri.getPort());
+    }
 }
@@ -22,6 +22,7 @@
  */
 package org.fairdatatrain.trainhandler.config;
 
+import org.fairdatatrain.trainhandler.api.websocket.WatchWebSocketHandler;
 import org.keycloak.adapters.springboot.KeycloakSpringBootConfigResolver;
 import org.keycloak.adapters.springsecurity.KeycloakConfiguration;
 import org.keycloak.adapters.springsecurity.authentication.KeycloakAuthenticationProvider;
@@ -61,6 +62,12 @@ public class SecurityKeycloakConfig extends KeycloakWebSecurityConfigurerAdapter
         super.configure(http);
         http
                 .csrf().disable()
-                .authorizeHttpRequests();
+                .authorizeHttpRequests(auth -> {
+                    auth
+                            .antMatchers(WatchWebSocketHandler.WATCH_LOCATION)
+                            .hasRole("user")
+                            .anyRequest()
+                            .permitAll();
+                });
     }
 }
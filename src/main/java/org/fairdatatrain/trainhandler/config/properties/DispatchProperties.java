@@ -27,12 +27,56 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Duration;
+
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
 public class DispatchProperties {
 
+    private static final int DEFAULT_CONCURRENCY = 16;
+
+    private static final int DEFAULT_PER_HOST_CONCURRENCY = 4;
+
+    private static final int DEFAULT_BATCH_SIZE = 10;
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private static final int DEFAULT_STATION_DISPATCH_BURST = 5;
+
+    private static final Duration FIVE_SECONDS = Duration.parse("PT5S");
+
+    private static final Duration FIVE_MINUTES = Duration.parse("PT5M");
+
     private String callbackRoot;
 
+    private Integer concurrency = DEFAULT_CONCURRENCY;
+
+    private Integer perHostConcurrency = DEFAULT_PER_HOST_CONCURRENCY;
+
+    private Integer batchSize = DEFAULT_BATCH_SIZE;
+
+    private Duration leaseDuration = FIVE_MINUTES;
+
+    private Duration outboxInterval = Duration.parse("PT1S");
+
+    private Integer maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private Duration initialBackoff = Duration.parse("PT2S");
+
+    private Duration maxBackoff = FIVE_MINUTES;
+
+    private Integer stationMaxConcurrentJobs = 0;
+
+    private Double stationDispatchRate = 0.0;
+
+    private Integer stationDispatchBurst = DEFAULT_STATION_DISPATCH_BURST;
+
+    private Duration throttleDelay = FIVE_SECONDS;
+
+    private Integer maxRunningRuns = 0;
+
+    private Duration queueInfoTtl = FIVE_SECONDS;
+
 }
@@ -0,0 +1,67 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class HttpPoolProperties {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 50;
+
+    private static final int DEFAULT_PENDING_ACQUIRE_MAX_COUNT = 1000;
+
+    private static final Duration FIVE_SECONDS = Duration.parse("PT5S");
+
+    private static final Duration THIRTY_SECONDS = Duration.parse("PT30S");
+
+    private Integer maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+    private Map<String, Integer> maxConnectionsPerHost = new HashMap<>();
+
+    private Integer pendingAcquireMaxCount = DEFAULT_PENDING_ACQUIRE_MAX_COUNT;
+
+    private Duration pendingAcquireTimeout = Duration.parse("PT45S");
+
+    private Duration maxIdleTime = THIRTY_SECONDS;
+
+    private Duration evictionInterval = Duration.parse("PT1M");
+
+    private Duration connectTimeout = FIVE_SECONDS;
+
+    private Duration readTimeout = THIRTY_SECONDS;
+
+    private Duration responseTimeout = FIVE_SECONDS;
+
+    private Boolean http2 = false;
+}
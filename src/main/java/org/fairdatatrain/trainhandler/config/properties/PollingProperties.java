@@ -26,6 +26,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -37,12 +38,48 @@ import java.time.temporal.ChronoUnit;
 @Setter
 public class PollingProperties {
 
+    private static final int DEFAULT_SNAPSHOT_CACHE_SIZE = 1024;
+
     private Duration timeout = Duration.parse("PT50S");
 
+    private Duration expiryTick = Duration.parse("PT1S");
+
+    private Duration heartbeat = Duration.parse("PT15S");
+
+    private Duration streamTimeout = Duration.parse("PT30M");
+
+    private Duration watchSendTimeLimit = Duration.parse("PT10S");
+
+    private DataSize watchBufferSize = DataSize.parse("512KB");
+
+    private Integer snapshotCacheSize = DEFAULT_SNAPSHOT_CACHE_SIZE;
+
+    private Duration coalesceWindow = Duration.parse("PT0.1S");
+
     public long getTimeoutMs() {
         return timeout.toMillis();
     }
 
+    public long getExpiryTickMs() {
+        return expiryTick.toMillis();
+    }
+
+    public long getStreamTimeoutMs() {
+        return streamTimeout.toMillis();
+    }
+
+    public long getCoalesceWindowMs() {
+        return coalesceWindow.toMillis();
+    }
+
+    public int getWatchSendTimeLimitMs() {
+        return (int) watchSendTimeLimit.toMillis();
+    }
+
+    public int getWatchBufferSizeBytes() {
+        return (int) watchBufferSize.toBytes();
+    }
+
     public Instant getTimeoutForCurrentPoll() {
         return Instant.now().plus(getTimeoutMs(), ChronoUnit.MILLIS);
     }
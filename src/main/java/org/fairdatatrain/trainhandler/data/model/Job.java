@@ -61,7 +61,7 @@ public class Job extends BaseEntity {
     @Column(name = "finished_at")
     private Timestamp finishedAt;
 
-    @Column(name = "version", nullable = false)
+    @Column(name = "version", nullable = false, updatable = false)
     private Long version;
 
     @NotNull
@@ -78,6 +78,10 @@ public class JobArtifact extends BaseEntity {
     @Type(type = "org.hibernate.type.BinaryType")
     private byte[] data;
 
+    @NotNull
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @NotNull
     @ManyToOne
     @JoinColumn(name = "job_id", nullable = false)
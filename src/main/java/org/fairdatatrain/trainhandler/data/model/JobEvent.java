@@ -55,6 +55,10 @@ public class JobEvent extends BaseEntity {
     @Column(name = "message", nullable = false)
     private String message;
 
+    @NotNull
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @NotNull
     @ManyToOne
     @JoinColumn(name = "job_id", nullable = false)
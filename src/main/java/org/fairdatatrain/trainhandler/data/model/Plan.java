@@ -56,6 +56,10 @@ public class Plan extends BaseEntity {
     @Column(name = "publish_artifacts", nullable = false)
     private Boolean publishArtifacts;
 
+    @NotNull
+    @Column(name = "priority", nullable = false)
+    private Integer priority;
+
     @NotNull
     @ManyToOne
     @JoinColumn(name = "train_id")
@@ -58,6 +58,10 @@ public class Run extends BaseEntity {
     @Column(name = "status", columnDefinition = "run_status", nullable = false)
     private RunStatus status;
 
+    @NotNull
+    @Column(name = "priority", nullable = false)
+    private Integer priority;
+
     @Column(name = "should_start_at")
     private Timestamp shouldStartAt;
 
@@ -67,9 +71,39 @@ public class Run extends BaseEntity {
     @Column(name = "finished_at")
     private Timestamp finishedAt;
 
-    @Column(name = "version", nullable = false)
+    @Column(name = "version", nullable = false, updatable = false)
     private Long version;
 
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private Timestamp leaseExpiresAt;
+
+    @Column(name = "jobs_prepared", nullable = false, insertable = false, updatable = false)
+    private Integer jobsPrepared;
+
+    @Column(name = "jobs_queued", nullable = false, insertable = false, updatable = false)
+    private Integer jobsQueued;
+
+    @Column(name = "jobs_running", nullable = false, insertable = false, updatable = false)
+    private Integer jobsRunning;
+
+    @Column(name = "jobs_finished", nullable = false, insertable = false, updatable = false)
+    private Integer jobsFinished;
+
+    @Column(name = "jobs_aborting", nullable = false, insertable = false, updatable = false)
+    private Integer jobsAborting;
+
+    @Column(name = "jobs_aborted", nullable = false, insertable = false, updatable = false)
+    private Integer jobsAborted;
+
+    @Column(name = "jobs_errored", nullable = false, insertable = false, updatable = false)
+    private Integer jobsErrored;
+
+    @Column(name = "jobs_failed", nullable = false, insertable = false, updatable = false)
+    private Integer jobsFailed;
+
     @NotNull
     @ManyToOne
     @JoinColumn(name = "plan_id")
@@ -28,6 +28,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 import org.fairdatatrain.trainhandler.data.model.base.BaseEntity;
+import org.fairdatatrain.trainhandler.data.model.enums.StationHealth;
 import org.fairdatatrain.trainhandler.data.model.enums.SyncItemStatus;
 
 import javax.persistence.*;
@@ -84,6 +85,22 @@ public class Station extends BaseEntity {
     @Column(name = "last_contact_at")
     private Timestamp lastContactAt;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "health", columnDefinition = "station_health", nullable = false)
+    private StationHealth health;
+
+    @Column(name = "last_latency_ms")
+    private Long lastLatencyMs;
+
+    @Column(name = "last_probed_at")
+    private Timestamp lastProbedAt;
+
+    @Column(name = "max_concurrent_jobs")
+    private Integer maxConcurrentJobs;
+
+    @Column(name = "dispatch_rate")
+    private Double dispatchRate;
+
     @ManyToOne
     @JoinColumn(name = "station_directory_id")
     private StationDirectory directory;
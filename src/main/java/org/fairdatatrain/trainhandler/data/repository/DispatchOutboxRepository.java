@@ -0,0 +1,87 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.data.repository;
+
+import org.fairdatatrain.trainhandler.data.model.DispatchOutboxEntry;
+import org.fairdatatrain.trainhandler.data.repository.base.BaseRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DispatchOutboxRepository extends BaseRepository<DispatchOutboxEntry> {
+
+    @Transactional
+    @Query(
+        value = """
+        UPDATE dispatch_outbox
+        SET lease_owner = :owner, lease_expires_at = :leaseExpiresAt
+        WHERE uuid IN (
+            SELECT o.uuid
+            FROM dispatch_outbox o
+            WHERE o.next_attempt_at <= :timestamp
+                AND (
+                    o.lease_expires_at IS NULL
+                    OR o.lease_expires_at < :timestamp
+                )
+            ORDER BY o.next_attempt_at ASC
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING *
+        """,
+        nativeQuery = true
+    )
+    List<DispatchOutboxEntry> claimDue(
+            @Param("timestamp") Timestamp timestamp,
+            @Param("owner") String owner,
+            @Param("leaseExpiresAt") Timestamp leaseExpiresAt,
+            @Param("limit") int limit
+    );
+
+    @Modifying
+    @Transactional
+    @Query(
+        value = """
+        UPDATE dispatch_outbox o
+        SET next_attempt_at = :timestamp, throttled = FALSE
+        FROM job j
+        JOIN plan_target pt ON pt.uuid = j.plan_target_id
+        WHERE o.job_id = j.uuid
+            AND o.throttled
+            AND o.next_attempt_at > :timestamp
+            AND pt.station_id = :stationUuid
+        """,
+        nativeQuery = true
+    )
+    int releaseThrottled(
+            @Param("stationUuid") UUID stationUuid,
+            @Param("timestamp") Timestamp timestamp
+    );
+}
@@ -22,6 +22,7 @@
  */
 package org.fairdatatrain.trainhandler.data.repository;
 
+import org.fairdatatrain.trainhandler.data.model.Job;
 import org.fairdatatrain.trainhandler.data.model.JobArtifact;
 import org.fairdatatrain.trainhandler.data.repository.base.BaseRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -33,6 +34,8 @@ import java.util.UUID;
 @Repository
 public interface JobArtifactRepository extends BaseRepository<JobArtifact> {
 
+    List<JobArtifact> findAllByJobAndVersionGreaterThanOrderByOccurredAtAsc(Job job, Long version);
+
     @Query(
         """
         SELECT ja
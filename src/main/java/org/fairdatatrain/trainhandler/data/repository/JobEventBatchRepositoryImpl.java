@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.data.model.JobEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserts job events with a single JDBC batch, bypassing the persistence
+ * context; the inserted events are not managed entities afterwards. Events
+ * that already exist are skipped, so a batch can be safely replayed.
+ */
+@RequiredArgsConstructor
+public class JobEventBatchRepositoryImpl implements JobEventBatchRepository {
+
+    private static final String INSERT = """
+            INSERT INTO job_event
+                (uuid, result_status, occurred_at, message, job_id, version, created_at, updated_at)
+            VALUES (?, CAST(? AS job_status), ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (uuid) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<JobEvent> jobEvents) {
+        jdbcTemplate.batchUpdate(INSERT, jobEvents, jobEvents.size(), this::setValues);
+    }
+
+    private void setValues(PreparedStatement statement, JobEvent jobEvent) throws SQLException {
+        int index = 0;
+        statement.setObject(++index, jobEvent.getUuid());
+        if (jobEvent.getResultStatus() == null) {
+            statement.setNull(++index, Types.VARCHAR);
+        }
+        else {
+            statement.setString(++index, jobEvent.getResultStatus().name());
+        }
+        statement.setTimestamp(++index, jobEvent.getOccurredAt());
+        statement.setString(++index, jobEvent.getMessage());
+        statement.setObject(++index, jobEvent.getJob().getUuid());
+        statement.setLong(++index, jobEvent.getVersion());
+        statement.setTimestamp(++index, jobEvent.getCreatedAt());
+        statement.setTimestamp(++index, jobEvent.getUpdatedAt());
+    }
+}
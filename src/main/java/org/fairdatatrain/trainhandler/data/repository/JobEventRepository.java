@@ -25,15 +25,43 @@ package org.fairdatatrain.trainhandler.data.repository;
 import org.fairdatatrain.trainhandler.data.model.Job;
 import org.fairdatatrain.trainhandler.data.model.JobEvent;
 import org.fairdatatrain.trainhandler.data.repository.base.BaseRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface JobEventRepository extends BaseRepository<JobEvent> {
+public interface JobEventRepository extends BaseRepository<JobEvent>, JobEventBatchRepository {
 
-    List<JobEvent> findAllByJobOrderByOccurredAtAsc(Job job);
+    List<JobEvent> findAllByJobOrderByOccurredAtAscUuidAsc(Job job);
+
+    List<JobEvent> findAllByJobOrderByOccurredAtAscUuidAsc(Job job, Pageable pageable);
+
+    List<JobEvent> findAllByJobOrderByOccurredAtDescUuidDesc(Job job, Pageable pageable);
+
+    @Query(
+        value = """
+        SELECT e.*
+        FROM job_event e
+        WHERE e.job_id = :jobUuid
+            AND (e.occurred_at, e.uuid) > (:occurredAt, :uuid)
+        ORDER BY e.occurred_at ASC, e.uuid ASC
+        LIMIT :limit
+        """,
+        nativeQuery = true
+    )
+    List<JobEvent> findPageAfter(
+            @Param("jobUuid") UUID jobUuid,
+            @Param("occurredAt") Timestamp occurredAt,
+            @Param("uuid") UUID uuid,
+            @Param("limit") int limit
+    );
 
     List<JobEvent> findAllByJobAndOccurredAtAfterOrderByOccurredAtAsc(Job job, Timestamp threshold);
+
+    List<JobEvent> findAllByJobAndVersionGreaterThanOrderByOccurredAtAsc(Job job, Long version);
 }
@@ -23,11 +23,18 @@
 package org.fairdatatrain.trainhandler.data.repository;
 
 import org.fairdatatrain.trainhandler.data.model.Job;
+import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
 import org.fairdatatrain.trainhandler.data.repository.base.BaseRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -35,4 +42,114 @@ public interface JobRepository extends BaseRepository<Job> {
 
     Page<Job> findAllByRunUuid(UUID runUuid, Pageable pageable);
 
+    List<Job> findAllByRunUuid(UUID runUuid);
+
+    long countByTargetStationUuidAndStatusIn(UUID stationUuid, Collection<JobStatus> statuses);
+
+    @Query(
+        value = """
+        UPDATE job
+        SET remote_id = COALESCE(remote_id, :remoteId),
+            version = GREATEST(version + 1, :version),
+            updated_at = :updatedAt
+        WHERE uuid = :uuid
+        RETURNING version
+        """,
+        nativeQuery = true
+    )
+    Optional<Long> bumpVersion(
+            @Param("uuid") UUID uuid,
+            @Param("remoteId") String remoteId,
+            @Param("version") Long version,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    @Query(
+        value = """
+        UPDATE job
+        SET version = GREATEST(version + 1, :version), updated_at = :updatedAt
+        WHERE uuid IN (:uuids)
+        RETURNING CAST(uuid AS VARCHAR) AS "uuid", version AS "version"
+        """,
+        nativeQuery = true
+    )
+    List<VersionBump> bumpVersions(
+            @Param("uuids") Collection<UUID> uuids,
+            @Param("version") Long version,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    @Query(
+        value = """
+        UPDATE job j
+        SET status = :status,
+            finished_at = CASE
+                WHEN :finished THEN COALESCE(j.finished_at, :finishedAt)
+                ELSE j.finished_at
+            END,
+            remote_id = COALESCE(j.remote_id, :remoteId),
+            version = GREATEST(j.version + 1, :version),
+            updated_at = :updatedAt
+        FROM (
+            SELECT p.uuid, p.status, p.finished_at
+            FROM job p
+            WHERE p.uuid = :uuid
+            FOR UPDATE
+        ) previous
+        WHERE j.uuid = previous.uuid
+        RETURNING
+            j.version AS "version",
+            CAST(previous.status AS VARCHAR) AS "previousStatus",
+            previous.finished_at IS NULL AND j.finished_at IS NOT NULL AS "becameFinished"
+        """,
+        nativeQuery = true
+    )
+    Optional<StatusUpdate> updateStatus(
+            @Param("uuid") UUID uuid,
+            @Param("status") String status,
+            @Param("finished") boolean finished,
+            @Param("finishedAt") Timestamp finishedAt,
+            @Param("remoteId") String remoteId,
+            @Param("version") Long version,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    @Query(
+        value = """
+        UPDATE job j
+        SET status = :status,
+            finished_at = CASE WHEN :finished THEN :finishedAt ELSE j.finished_at END,
+            version = GREATEST(j.version + 1, :version),
+            updated_at = :updatedAt
+        FROM (
+            SELECT p.uuid, p.status, p.finished_at
+            FROM job p
+            WHERE p.uuid = :uuid AND p.status = 'QUEUED'
+            FOR UPDATE
+        ) previous
+        WHERE j.uuid = previous.uuid
+        RETURNING
+            j.version AS "version",
+            CAST(previous.status AS VARCHAR) AS "previousStatus",
+            previous.finished_at IS NULL AND j.finished_at IS NOT NULL AS "becameFinished"
+        """,
+        nativeQuery = true
+    )
+    Optional<StatusUpdate> updateStatusIfQueued(
+            @Param("uuid") UUID uuid,
+            @Param("status") String status,
+            @Param("finished") boolean finished,
+            @Param("finishedAt") Timestamp finishedAt,
+            @Param("version") Long version,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    interface StatusUpdate {
+
+        Long getVersion();
+
+        String getPreviousStatus();
+
+        Boolean getBecameFinished();
+    }
 }
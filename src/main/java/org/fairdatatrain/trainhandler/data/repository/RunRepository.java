@@ -23,14 +23,20 @@
 package org.fairdatatrain.trainhandler.data.repository;
 
 import org.fairdatatrain.trainhandler.data.model.Run;
+import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
 import org.fairdatatrain.trainhandler.data.repository.base.BaseRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -38,20 +44,291 @@ public interface RunRepository extends BaseRepository<Run> {
 
     Page<Run> findAllByPlanUuid(UUID planUuid, Pageable pageable);
 
-    @Query("""
-        SELECT r
-        FROM Run r
-        WHERE
-            (
-                r.status = 'SCHEDULED'
-                AND r.shouldStartAt IS NOT NULL
-                AND r.shouldStartAt < :timestamp
-            ) OR (
-                r.status = 'PREPARED'
-                AND r.startedAt IS NULL
-                AND r.shouldStartAt IS NULL
-            )
-        ORDER BY r.shouldStartAt ASC
-        """)
-    Page<Run> findRunToDispatch(@Param("timestamp") Timestamp timestamp, Pageable pageable);
+    List<Run> findAllByPlanUuidAndStatusNotIn(UUID planUuid, Collection<RunStatus> statuses);
+
+    List<Run> findAllByStatusAndShouldStartAtAfter(RunStatus status, Timestamp timestamp);
+
+    @Transactional
+    @Query(
+        value = """
+        UPDATE run
+        SET lease_owner = :owner, lease_expires_at = :leaseExpiresAt
+        WHERE uuid IN (
+            SELECT w.uuid
+            FROM (
+                SELECT
+                    d.uuid,
+                    d.should_start_at,
+                    d.created_at,
+                    COALESCE(a.active, 0) + SUM(1.0 / (1 + GREATEST(d.priority, 0))) OVER (
+                        PARTITION BY d.plan_id
+                        ORDER BY
+                            d.priority DESC, d.should_start_at ASC NULLS FIRST, d.created_at ASC, d.uuid ASC
+                        ROWS UNBOUNDED PRECEDING
+                    ) AS virtual_finish
+                FROM (
+                    SELECT r.uuid, r.plan_id, r.priority, r.should_start_at, r.created_at
+                    FROM run r
+                    WHERE
+                        (
+                            (
+                                r.status = 'SCHEDULED'
+                                AND r.should_start_at IS NOT NULL
+                                AND r.should_start_at < :timestamp
+                            ) OR (
+                                r.status = 'PREPARED'
+                                AND r.started_at IS NULL
+                                AND r.should_start_at IS NULL
+                            )
+                        ) AND (
+                            r.lease_expires_at IS NULL
+                            OR r.lease_expires_at < :timestamp
+                        )
+                    FOR UPDATE SKIP LOCKED
+                ) d
+                LEFT JOIN (
+                    SELECT plan_id, COUNT(*) AS active
+                    FROM run
+                    WHERE status IN ('RUNNING', 'ABORTING')
+                    GROUP BY plan_id
+                ) a ON a.plan_id = d.plan_id
+            ) w
+            ORDER BY w.virtual_finish ASC, w.should_start_at ASC NULLS FIRST, w.created_at ASC, w.uuid ASC
+            LIMIT :limit
+        )
+        RETURNING *
+        """,
+        nativeQuery = true
+    )
+    List<Run> claimRunsToDispatch(
+            @Param("timestamp") Timestamp timestamp,
+            @Param("owner") String owner,
+            @Param("leaseExpiresAt") Timestamp leaseExpiresAt,
+            @Param("limit") int limit
+    );
+
+    @Query(
+        value = """
+        SELECT CAST(w.uuid AS VARCHAR)
+        FROM (
+            SELECT
+                r.uuid,
+                r.should_start_at,
+                r.created_at,
+                COALESCE(a.active, 0) + SUM(1.0 / (1 + GREATEST(r.priority, 0))) OVER (
+                    PARTITION BY r.plan_id
+                    ORDER BY r.priority DESC, r.should_start_at ASC NULLS FIRST, r.created_at ASC, r.uuid ASC
+                    ROWS UNBOUNDED PRECEDING
+                ) AS virtual_finish
+            FROM run r
+            LEFT JOIN (
+                SELECT plan_id, COUNT(*) AS active
+                FROM run
+                WHERE status IN ('RUNNING', 'ABORTING')
+                GROUP BY plan_id
+            ) a ON a.plan_id = r.plan_id
+            WHERE
+                (
+                    r.status = 'SCHEDULED'
+                    AND r.should_start_at IS NOT NULL
+                    AND r.should_start_at < :timestamp
+                ) OR (
+                    r.status = 'PREPARED'
+                    AND r.started_at IS NULL
+                    AND r.should_start_at IS NULL
+                )
+        ) w
+        ORDER BY w.virtual_finish ASC, w.should_start_at ASC NULLS FIRST, w.created_at ASC, w.uuid ASC
+        """,
+        nativeQuery = true
+    )
+    List<String> findQueuedRunUuids(@Param("timestamp") Timestamp timestamp);
+
+    @Query(
+        value = """
+        SELECT AVG(EXTRACT(EPOCH FROM (recent.finished_at - recent.started_at)))
+        FROM (
+            SELECT r.started_at, r.finished_at
+            FROM run r
+            WHERE r.started_at IS NOT NULL AND r.finished_at IS NOT NULL
+            ORDER BY r.finished_at DESC
+            LIMIT 100
+        ) recent
+        """,
+        nativeQuery = true
+    )
+    Double averageRecentRunSeconds();
+
+    long countByStatusIn(Collection<RunStatus> statuses);
+
+    @Query(
+        value = """
+        UPDATE run
+        SET version = GREATEST(version + 1, :version), updated_at = :updatedAt
+        WHERE uuid = :uuid
+        RETURNING version
+        """,
+        nativeQuery = true
+    )
+    Optional<Long> bumpVersion(
+            @Param("uuid") UUID uuid,
+            @Param("version") Long version,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    @Query(
+        value = """
+        UPDATE run
+        SET version = GREATEST(version + 1, :version), updated_at = :updatedAt
+        WHERE uuid IN (
+            SELECT r.uuid
+            FROM run r
+            WHERE r.uuid IN (:uuids)
+            ORDER BY r.uuid
+            FOR UPDATE
+        )
+        RETURNING CAST(uuid AS VARCHAR) AS "uuid", version AS "version"
+        """,
+        nativeQuery = true
+    )
+    List<VersionBump> bumpVersions(
+            @Param("uuids") Collection<UUID> uuids,
+            @Param("version") Long version,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    @Modifying
+    @Query(
+        value = """
+        UPDATE run r
+        SET
+            jobs_prepared = c.prepared,
+            jobs_queued = c.queued,
+            jobs_running = c.running,
+            jobs_finished = c.finished,
+            jobs_aborting = c.aborting,
+            jobs_aborted = c.aborted,
+            jobs_errored = c.errored,
+            jobs_failed = c.failed
+        FROM (
+            SELECT
+                COUNT(*) FILTER (WHERE j.status = 'PREPARED') AS prepared,
+                COUNT(*) FILTER (WHERE j.status = 'QUEUED') AS queued,
+                COUNT(*) FILTER (WHERE j.status = 'RUNNING') AS running,
+                COUNT(*) FILTER (WHERE j.status = 'FINISHED') AS finished,
+                COUNT(*) FILTER (WHERE j.status = 'ABORTING') AS aborting,
+                COUNT(*) FILTER (WHERE j.status = 'ABORTED') AS aborted,
+                COUNT(*) FILTER (WHERE j.status = 'ERRORED') AS errored,
+                COUNT(*) FILTER (WHERE j.status = 'FAILED') AS failed
+            FROM job j
+            WHERE j.run_id = :uuid
+        ) c
+        WHERE r.uuid = :uuid
+        """,
+        nativeQuery = true
+    )
+    int recountJobs(@Param("uuid") UUID uuid);
+
+    @Modifying
+    @Query(
+        value = """
+        UPDATE run
+        SET display_name = :displayName,
+            note = :note,
+            version = GREATEST(version + 1, :version),
+            updated_at = :updatedAt
+        WHERE uuid = :uuid
+        """,
+        nativeQuery = true
+    )
+    int updateDetails(
+            @Param("uuid") UUID uuid,
+            @Param("displayName") String displayName,
+            @Param("note") String note,
+            @Param("version") Long version,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    @Query(
+        value = """
+        UPDATE run
+        SET
+            jobs_prepared = jobs_prepared + CAST(:toStatus = 'PREPARED' AS INT)
+                - CAST(:fromStatus = 'PREPARED' AS INT),
+            jobs_queued = jobs_queued + CAST(:toStatus = 'QUEUED' AS INT)
+                - CAST(:fromStatus = 'QUEUED' AS INT),
+            jobs_running = jobs_running + CAST(:toStatus = 'RUNNING' AS INT)
+                - CAST(:fromStatus = 'RUNNING' AS INT),
+            jobs_finished = jobs_finished + CAST(:toStatus = 'FINISHED' AS INT)
+                - CAST(:fromStatus = 'FINISHED' AS INT),
+            jobs_aborting = jobs_aborting + CAST(:toStatus = 'ABORTING' AS INT)
+                - CAST(:fromStatus = 'ABORTING' AS INT),
+            jobs_aborted = jobs_aborted + CAST(:toStatus = 'ABORTED' AS INT)
+                - CAST(:fromStatus = 'ABORTED' AS INT),
+            jobs_errored = jobs_errored + CAST(:toStatus = 'ERRORED' AS INT)
+                - CAST(:fromStatus = 'ERRORED' AS INT),
+            jobs_failed = jobs_failed + CAST(:toStatus = 'FAILED' AS INT)
+                - CAST(:fromStatus = 'FAILED' AS INT),
+            updated_at = :updatedAt
+        WHERE uuid = :uuid
+        RETURNING
+            CAST(status AS VARCHAR) AS "status",
+            finished_at AS "finishedAt",
+            jobs_prepared AS "jobsPrepared",
+            jobs_queued AS "jobsQueued",
+            jobs_running AS "jobsRunning",
+            jobs_finished AS "jobsFinished",
+            jobs_aborting AS "jobsAborting",
+            jobs_aborted AS "jobsAborted",
+            jobs_errored AS "jobsErrored",
+            jobs_failed AS "jobsFailed"
+        """,
+        nativeQuery = true
+    )
+    Optional<JobCounters> applyJobTransition(
+            @Param("uuid") UUID uuid,
+            @Param("fromStatus") String fromStatus,
+            @Param("toStatus") String toStatus,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+
+    @Modifying
+    @Query(
+        value = """
+        UPDATE run
+        SET status = :status,
+            finished_at = CASE WHEN :finished THEN COALESCE(finished_at, :finishedAt) ELSE finished_at END
+        WHERE uuid = :uuid
+        """,
+        nativeQuery = true
+    )
+    int updateStatus(
+            @Param("uuid") UUID uuid,
+            @Param("status") String status,
+            @Param("finished") boolean finished,
+            @Param("finishedAt") Timestamp finishedAt
+    );
+
+    interface JobCounters {
+
+        String getStatus();
+
+        Timestamp getFinishedAt();
+
+        Integer getJobsPrepared();
+
+        Integer getJobsQueued();
+
+        Integer getJobsRunning();
+
+        Integer getJobsFinished();
+
+        Integer getJobsAborting();
+
+        Integer getJobsAborted();
+
+        Integer getJobsErrored();
+
+        Integer getJobsFailed();
+    }
 }
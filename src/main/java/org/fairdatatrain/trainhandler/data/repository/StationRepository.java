@@ -23,20 +23,27 @@
 package org.fairdatatrain.trainhandler.data.repository;
 
 import org.fairdatatrain.trainhandler.data.model.Station;
+import org.fairdatatrain.trainhandler.data.model.enums.StationHealth;
 import org.fairdatatrain.trainhandler.data.repository.base.BaseRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface StationRepository extends BaseRepository<Station> {
 
     Page<Station> findAllBySoftDeletedIsFalse(Pageable pageable);
 
+    List<Station> findAllBySoftDeletedIsFalse();
+
     Page<Station> findByTitleContainingIgnoreCaseAndSoftDeletedIsFalse(
             String query, Pageable pageable
     );
@@ -48,4 +55,17 @@ public interface StationRepository extends BaseRepository<Station> {
             AND s.softDeleted IS FALSE
         ORDER BY s.title""")
     List<Station> findByTitleContainingIgnoreCase(@Param("query") String query);
+
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE Station s
+        SET s.health = :health, s.lastLatencyMs = :latencyMs, s.lastProbedAt = :probedAt
+        WHERE s.uuid = :uuid""")
+    int updateHealth(
+            @Param("uuid") UUID uuid,
+            @Param("health") StationHealth health,
+            @Param("latencyMs") Long latencyMs,
+            @Param("probedAt") Timestamp probedAt
+    );
 }
@@ -38,12 +38,15 @@ public class AsyncEventPublisher {
 
     private final ApplicationEventPublisher publisher;
 
+    private final NotificationExecutor notificationExecutor;
+
     public void publishNewJobEventNotification(final RunDTO run, final JobDTO job) {
         log.info(format(
                 "Publishing new job notification for job %s (run %s)",
                 job.getUuid(), run.getUuid()
         ));
-        publisher.publishEvent(new JobNotification(this, run, job));
+        final JobNotification notification = new JobNotification(this, run, job);
+        notificationExecutor.execute(run.getUuid(), () -> publisher.publishEvent(notification));
     }
 
     public void publishNewJobEventNotification(final RunDTO run) {
@@ -51,7 +54,17 @@ public class AsyncEventPublisher {
                 "Publishing new run notification for run %s",
                 run.getUuid()
         ));
-        publisher.publishEvent(new JobNotification(this, run, null));
+        final JobNotification notification = new JobNotification(this, run, null);
+        notificationExecutor.execute(run.getUuid(), () -> publisher.publishEvent(notification));
+    }
+
+    public void publishRemoteJobEventNotification(final RunDTO run, final JobDTO job) {
+        log.info(format(
+                "Publishing remote notification for run %s",
+                run.getUuid()
+        ));
+        final JobNotification notification = new JobNotification(this, run, job, true);
+        notificationExecutor.execute(run.getUuid(), () -> publisher.publishEvent(notification));
     }
 
 }
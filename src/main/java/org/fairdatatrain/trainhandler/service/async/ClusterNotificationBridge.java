@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.service.job.JobService;
+import org.fairdatatrain.trainhandler.service.run.RunService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static java.lang.String.format;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "dispatcher.cluster.enabled", havingValue = "true")
+public class ClusterNotificationBridge {
+
+    private final DispatcherConfig config;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final RunService runService;
+
+    private final JobService jobService;
+
+    private final AsyncEventPublisher asyncEventPublisher;
+
+    @EventListener
+    public void handleJobEventNotification(JobNotification notification) {
+        if (notification.isRemote()) {
+            return;
+        }
+        final ClusterNotification clusterNotification = ClusterNotification.builder()
+                .nodeId(config.getCluster().getNodeId())
+                .runUuid(notification.getRun().getUuid())
+                .jobUuid(notification.getJob() == null ? null : notification.getJob().getUuid())
+                .version(notification.getRun().getVersion())
+                .build();
+        try {
+            jdbcTemplate.query(
+                    "SELECT pg_notify(?, ?)",
+                    resultSet -> null,
+                    config.getCluster().getChannel(),
+                    objectMapper.writeValueAsString(clusterNotification)
+            );
+        }
+        catch (JsonProcessingException exception) {
+            log.error(format("Cannot serialize cluster notification: %s", exception.getMessage()));
+        }
+    }
+
+    /**
+     * Publishes a notification received from another node locally, with the
+     * run and job loaded from the database.
+     */
+    public void receive(String payload) {
+        final ClusterNotification notification;
+        try {
+            notification = objectMapper.readValue(payload, ClusterNotification.class);
+        }
+        catch (JsonProcessingException exception) {
+            log.warn(format("Invalid cluster notification: %s", payload));
+            return;
+        }
+        if (config.getCluster().getNodeId().equals(notification.getNodeId())) {
+            return;
+        }
+        log.debug(format(
+                "Received cluster notification for run %s (version %s) from node %s",
+                notification.getRunUuid(), notification.getVersion(), notification.getNodeId()
+        ));
+        try {
+            transactionTemplate.executeWithoutResult(status -> republish(notification));
+        }
+        catch (Exception exception) {
+            log.warn(format("Handling cluster notification failed: %s", exception.getMessage()));
+        }
+    }
+
+    private void republish(ClusterNotification notification) {
+        try {
+            final RunDTO run = runService.getSingle(notification.getRunUuid());
+            final JobDTO job = notification.getJobUuid() == null
+                    ? null
+                    : jobService.getSingle(notification.getRunUuid(), notification.getJobUuid());
+            asyncEventPublisher.publishRemoteJobEventNotification(run, job);
+        }
+        catch (Exception exception) {
+            log.warn(format("Cannot load notified entities: %s", exception.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+
+/**
+ * Listens on the cluster notification channel on a dedicated connection
+ * and hands the payloads of other nodes to {@link ClusterNotificationBridge}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "dispatcher.cluster.enabled", havingValue = "true")
+public class ClusterNotificationReceiver {
+
+    private final DispatcherConfig config;
+
+    private final DataSource dataSource;
+
+    private final ClusterNotificationBridge clusterNotificationBridge;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "cluster-notification-listener");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        running.set(true);
+        executor.submit(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running.set(false);
+        executor.shutdownNow();
+    }
+
+    private void listen() {
+        while (running.get()) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(format("LISTEN %s", config.getCluster().getChannel()));
+                }
+                log.info(format("Listening for cluster notifications on '%s'",
+                        config.getCluster().getChannel()));
+                final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running.get()) {
+                    final PGNotification[] notifications =
+                            pgConnection.getNotifications(config.getCluster().getListenIntervalMs());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            clusterNotificationBridge.receive(notification.getParameter());
+                        }
+                    }
+                }
+            }
+            catch (SQLException exception) {
+                log.warn(format("Cluster notification listener failed: %s", exception.getMessage()));
+                pause();
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(config.getCluster().getListenIntervalMs());
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            running.set(false);
+        }
+    }
+}
@@ -32,10 +32,17 @@ public class JobNotification extends ApplicationEvent {
 
     private final JobDTO job;
 
+    private final boolean remote;
+
     JobNotification(Object source, RunDTO run, JobDTO job) {
+        this(source, run, job, false);
+    }
+
+    JobNotification(Object source, RunDTO run, JobDTO job, boolean remote) {
         super(source);
         this.run = run;
         this.job = job;
+        this.remote = remote;
     }
 
     public RunDTO getRun() {
@@ -45,4 +52,8 @@ public class JobNotification extends ApplicationEvent {
     public JobDTO getJob() {
         return job;
     }
+
+    public boolean isRemote() {
+        return remote;
+    }
 }
@@ -23,16 +23,20 @@
 package org.fairdatatrain.trainhandler.service.async;
 
 import lombok.RequiredArgsConstructor;
-import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
 import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.service.job.JobMapper;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.annotation.PostConstruct;
 import java.time.Instant;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static java.lang.String.format;
 
@@ -41,9 +45,22 @@ import static java.lang.String.format;
 @RequiredArgsConstructor
 public class JobNotificationListener {
 
+    private static final String TYPE = "job";
+
     private final DispatcherConfig config;
 
-    private final Map<UUID, List<PollContainer<JobDTO>>> queues = new HashMap<>();
+    private final PollExpiryWheel expiryWheel;
+
+    private final SnapshotCache snapshotCache;
+
+    private final JobMapper jobMapper;
+
+    private final PollRegistry<byte[]> registry = new PollRegistry<>();
+
+    @PostConstruct
+    public void init() {
+        expiryWheel.register(TYPE, registry);
+    }
 
     @EventListener
     public void handleJobEventNotification(JobNotification notification) {
@@ -53,75 +70,76 @@ public class JobNotificationListener {
         }
     }
 
-    @Synchronized
     public void updateResults(JobDTO job) {
         log.info(format(
                 "Updating results for job '%s' (version '%s'): start",
                 job.getUuid(), job.getVersion()
         ));
-        final Instant now = Instant.now();
-        if (queues.containsKey(job.getUuid())) {
-            final List<PollContainer<JobDTO>> remaining = new ArrayList<>();
-            queues.get(job.getUuid())
-                    .stream()
-                    .filter(container -> container.getTimeoutsAt().isAfter(now))
-                    .forEach(container -> {
-                        if (container.getVersion() <= job.getVersion()) {
-                            log.info(format("Sending job for requested version: %s",
-                                    container.getVersion()));
-                            container.getResult().setResult(job);
-                        }
-                        else {
-                            remaining.add(container);
-                        }
-                    });
-            log.debug(format(
-                    "Job %s queue size before %s and after %s",
-                    job.getUuid(), queues.get(job.getUuid()).size(), remaining.size()
-            ));
-            queues.put(job.getUuid(), remaining);
+        final List<PollContainer<byte[]>> released =
+                registry.release(job.getUuid(), job.getVersion());
+        if (released.isEmpty()) {
+            return;
         }
+        released.forEach(container -> {
+            log.info(format("Sending job for requested version: %s", container.getVersion()));
+            container.getResult().setResult(render(job, container));
+        });
+        log.debug(format(
+                "Job %s released %s and remaining %s",
+                job.getUuid(), released.size(), registry.size(job.getUuid())
+        ));
         log.info(format(
                 "Updating results for job '%s' (version '%s'): done",
                 job.getUuid(), job.getVersion()
         ));
     }
 
-    @Synchronized
-    public void enqueue(UUID jobUuid, Long version, DeferredResult<JobDTO> result) {
+    public void enqueue(UUID jobUuid, Long version, PollMode mode, DeferredResult<byte[]> result) {
         log.info(format(
                 "Enqueueing deferred result for job '%s' (version '%s')",
                 jobUuid, version
         ));
-        final Instant now = Instant.now();
-        if (!queues.containsKey(jobUuid)) {
-            log.debug("Initializing new job queue");
-            queues.put(jobUuid, new ArrayList<>());
-        }
-        else {
-            log.debug("Cleaning up existing job queue");
-            final List<PollContainer<JobDTO>> remaining = new ArrayList<>();
-            queues.get(jobUuid).forEach(container -> {
-                if (container.getTimeoutsAt().isAfter(now)) {
-                    remaining.add(container);
-                }
-            });
-            log.debug(format(
-                    "Existing job queue size before %s and after %s",
-                    queues.get(jobUuid).size(), remaining.size()
-            ));
-            queues.put(jobUuid, remaining);
-        }
-        queues.get(jobUuid).add(
-                new PollContainer<>(
-                        version,
-                        config.getPolling().getTimeoutForCurrentPoll(),
-                        result
-                )
+        final PollContainer<byte[]> container = new PollContainer<>(
+                version,
+                config.getPolling().getTimeoutForCurrentPoll(),
+                mode,
+                result
         );
+        registry.enqueue(jobUuid, container);
+        expiryWheel.schedule(TYPE, registry, jobUuid, container);
         log.debug(format(
                 "Enqueueing deferred result for job '%s' (version '%s'): done",
                 jobUuid, version
         ));
     }
+
+    public void enqueueBatch(Map<UUID, Long> versions, DeferredResult<byte[]> result) {
+        log.info(format("Enqueueing batch deferred result for %s %s(s)", versions.size(), TYPE));
+        final Instant timeoutsAt = config.getPolling().getTimeoutForCurrentPoll();
+        final List<Map.Entry<UUID, PollContainer<byte[]>>> containers = new ArrayList<>();
+        versions.forEach((jobUuid, version) -> {
+            final PollContainer<byte[]> container =
+                    new PollContainer<>(version, timeoutsAt, PollMode.BATCH, result);
+            registry.enqueue(jobUuid, container);
+            expiryWheel.schedule(TYPE, registry, jobUuid, container);
+            containers.add(Map.entry(jobUuid, container));
+        });
+        result.onCompletion(() -> {
+            containers.forEach(entry -> registry.remove(entry.getKey(), entry.getValue()));
+        });
+    }
+
+    private byte[] render(JobDTO job, PollContainer<byte[]> container) {
+        if (container.getMode() == PollMode.DELTA) {
+            final Long since = container.getVersion();
+            return snapshotCache.get(
+                    job.getUuid(), job.getVersion(), since, () -> jobMapper.toDeltaDTO(job, since)
+            );
+        }
+        final byte[] json = snapshotCache.get(job.getUuid(), job.getVersion(), () -> job);
+        if (container.getMode() == PollMode.BATCH) {
+            return SnapshotCache.toJsonArray(List.of(json));
+        }
+        return json;
+    }
 }
@@ -0,0 +1,144 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.service.job.JobService;
+import org.fairdatatrain.trainhandler.service.run.RunService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Coalesces job notifications of a run within a configurable window, so that
+ * a burst of events and artifacts is mapped and published only once with
+ * the latest state of the run and of each changed job.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationCoalescer {
+
+    private final DispatcherConfig config;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RunService runService;
+
+    private final JobService jobService;
+
+    private final AsyncEventPublisher asyncEventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, Set<UUID>> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "notification-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter coalesced;
+
+    @PostConstruct
+    public void init() {
+        coalesced = meterRegistry.counter("trainhandler.notifications.coalesced");
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public void submit(UUID runUuid, UUID jobUuid) {
+        final long window = config.getPolling().getCoalesceWindowMs();
+        if (window <= 0) {
+            publish(runUuid, Set.of(jobUuid));
+            return;
+        }
+        final boolean[] opened = {false};
+        pending.compute(runUuid, (key, jobUuids) -> {
+            final Set<UUID> target = jobUuids == null ? ConcurrentHashMap.newKeySet() : jobUuids;
+            opened[0] = jobUuids == null;
+            target.add(jobUuid);
+            return target;
+        });
+        if (opened[0]) {
+            executor.schedule(() -> flush(runUuid), window, TimeUnit.MILLISECONDS);
+        }
+        else {
+            coalesced.increment();
+        }
+    }
+
+    private void flush(UUID runUuid) {
+        final Set<UUID> jobUuids = pending.remove(runUuid);
+        if (jobUuids != null) {
+            publish(runUuid, jobUuids);
+        }
+    }
+
+    private void publish(UUID runUuid, Set<UUID> jobUuids) {
+        log.debug(format("Publishing notification for run %s and %s job(s)", runUuid, jobUuids.size()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> publishLoaded(runUuid, jobUuids));
+        }
+        catch (Exception exception) {
+            log.warn(format(
+                    "Publishing notification for run %s failed: %s",
+                    runUuid, exception.getMessage()
+            ));
+        }
+    }
+
+    private void publishLoaded(UUID runUuid, Set<UUID> jobUuids) {
+        try {
+            final RunDTO run = runService.getSingle(runUuid);
+            for (UUID jobUuid : jobUuids) {
+                final JobDTO job = jobService.getSingle(runUuid, jobUuid);
+                asyncEventPublisher.publishNewJobEventNotification(run, job);
+            }
+        }
+        catch (Exception exception) {
+            log.warn(format("Cannot load notified entities: %s", exception.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.config.properties.NotificationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Bounded executor delivering notifications to the listeners off the thread
+ * that published them. Notifications are striped by run UUID over
+ * single-threaded lanes, so those of one run are delivered in order. When a
+ * lane is full, the configured overflow policy applies. By default the
+ * publisher delivers the notification itself ({@code CALLER_RUNS}). A lane
+ * is shared by many runs, so the dropping policies may discard the last
+ * notification of another run, whose SSE and WebSocket subscribers then do
+ * not see its final state until they poll again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationExecutor {
+
+    private final DispatcherConfig config;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<ThreadPoolExecutor> lanes = new ArrayList<>();
+
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        final NotificationProperties properties = config.getNotification();
+        dropped = meterRegistry.counter("trainhandler.notifications.dropped");
+        for (int i = 0; i < properties.getLanes(); i++) {
+            final String name = format("notification-%d", i);
+            lanes.add(new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    rejectionHandler(properties.getOverflowPolicy())
+            ));
+        }
+        meterRegistry.gauge("trainhandler.notifications.queued", lanes, this::queued);
+    }
+
+    @PreDestroy
+    public void stop() {
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    public void execute(UUID runUuid, Runnable task) {
+        final ThreadPoolExecutor lane = lanes.get(Math.floorMod(runUuid.hashCode(), lanes.size()));
+        lane.execute(() -> deliver(runUuid, task));
+    }
+
+    private void deliver(UUID runUuid, Runnable task) {
+        try {
+            task.run();
+        }
+        catch (Exception exception) {
+            log.warn(format(
+                    "Delivering notification for run %s failed: %s",
+                    runUuid, exception.getMessage()
+            ));
+        }
+    }
+
+    private double queued(List<ThreadPoolExecutor> executors) {
+        return executors.stream().mapToInt(executor -> executor.getQueue().size()).sum();
+    }
+
+    private RejectedExecutionHandler rejectionHandler(NotificationProperties.OverflowPolicy policy) {
+        return switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DROP_NEWEST -> (task, executor) -> dropped.increment();
+            case DROP_OLDEST -> (task, executor) -> {
+                if (!executor.isShutdown()) {
+                    dropped.increment();
+                    executor.getQueue().poll();
+                    executor.execute(task);
+                }
+            };
+        };
+    }
+}
@@ -38,6 +38,8 @@ public class PollContainer<T> implements Comparable<PollContainer<?>> {
 
     private Instant timeoutsAt;
 
+    private PollMode mode;
+
     private DeferredResult<T> result;
 
     @Override
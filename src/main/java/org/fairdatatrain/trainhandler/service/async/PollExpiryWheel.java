@@ -0,0 +1,151 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static java.lang.String.format;
+
+/**
+ * Hashed timer wheel reclaiming timed-out poll containers.
+ *
+ * <p>Each scheduled container lands in the slot of its deadline tick and
+ * the periodic tick only visits the slots that have passed since the last
+ * run, so expiry costs O(1) amortized per container regardless of how many
+ * waiters are registered.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PollExpiryWheel {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private static final String METRIC_WAITERS = "trainhandler.polling.waiters";
+
+    private static final String METRIC_BUCKETS = "trainhandler.polling.buckets";
+
+    private static final String METRIC_RECLAIMED = "trainhandler.polling.reclaimed";
+
+    private static final String TAG_TYPE = "type";
+
+    private final DispatcherConfig config;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Queue<Entry>[] slots = createSlots();
+
+    private long lastTick = -1;
+
+    public void register(String type, PollRegistry<?> registry) {
+        Gauge.builder(METRIC_WAITERS, registry, PollRegistry::size)
+                .description("Number of waiting long polls")
+                .tag(TAG_TYPE, type)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_BUCKETS, registry, PollRegistry::buckets)
+                .description("Number of entities with waiting long polls")
+                .tag(TAG_TYPE, type)
+                .register(meterRegistry);
+    }
+
+    public void schedule(String type, PollRegistry<?> registry, UUID uuid, PollContainer<?> container) {
+        final long deadline = Math.max(toTick(container.getTimeoutsAt()), toTick(Instant.now()) + 1);
+        slots[slotOf(deadline)].add(new Entry(type, registry, uuid, container, deadline));
+    }
+
+    @Scheduled(
+            initialDelayString = "${dispatcher.polling.expiryTick:PT1S}",
+            fixedRateString = "${dispatcher.polling.expiryTick:PT1S}"
+    )
+    public synchronized void tick() {
+        final long now = toTick(Instant.now());
+        final long from = lastTick < 0 || now - lastTick > WHEEL_SIZE ? now - WHEEL_SIZE + 1 : lastTick + 1;
+        int reclaimed = 0;
+        for (long tick = from; tick <= now; tick++) {
+            reclaimed += expireSlot(slots[slotOf(tick)], now);
+        }
+        lastTick = now;
+        if (reclaimed > 0) {
+            log.debug(format("Reclaimed %s expired poll containers", reclaimed));
+        }
+    }
+
+    private int expireSlot(Queue<Entry> slot, long now) {
+        int reclaimed = 0;
+        final Iterator<Entry> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.deadline() <= now) {
+                iterator.remove();
+                if (entry.registry().remove(entry.uuid(), entry.container())) {
+                    Counter.builder(METRIC_RECLAIMED)
+                            .description("Number of expired long polls reclaimed")
+                            .tag(TAG_TYPE, entry.type())
+                            .register(meterRegistry)
+                            .increment();
+                    reclaimed++;
+                }
+            }
+        }
+        return reclaimed;
+    }
+
+    private long toTick(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), config.getPolling().getExpiryTickMs());
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Queue<Entry>[] createSlots() {
+        final Queue<Entry>[] result = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            result[i] = new ConcurrentLinkedQueue<>();
+        }
+        return result;
+    }
+
+    private record Entry(
+            String type,
+            PollRegistry<?> registry,
+            UUID uuid,
+            PollContainer<?> container,
+            long deadline
+    ) {
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of waiting long polls, keyed by the polled entity UUID.
+ *
+ * <p>Waiters of each UUID are indexed by their requested version, so a
+ * notification for version V releases exactly the waiters with version
+ * lower or equal to V in O(k log n) and leaves the rest untouched. All
+ * mutations go through the atomic per-key operations of
+ * {@link ConcurrentHashMap}, so polls and notifications for different
+ * entities never contend with each other. Released containers are
+ * returned to the caller, so that results are delivered outside of the
+ * per-key critical section.</p>
+ */
+public class PollRegistry<T> {
+
+    private final ConcurrentHashMap<UUID, NavigableMap<Long, Queue<PollContainer<T>>>> queues =
+            new ConcurrentHashMap<>();
+
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    public void enqueue(UUID uuid, PollContainer<T> container) {
+        queues.compute(uuid, (key, index) -> {
+            final NavigableMap<Long, Queue<PollContainer<T>>> target =
+                    index == null ? new ConcurrentSkipListMap<>() : index;
+            target.computeIfAbsent(container.getVersion(), version -> new ConcurrentLinkedQueue<>())
+                    .add(container);
+            waiters.incrementAndGet();
+            return target;
+        });
+    }
+
+    public List<PollContainer<T>> release(UUID uuid, Long version) {
+        final Instant now = Instant.now();
+        final List<PollContainer<T>> released = new ArrayList<>();
+        queues.computeIfPresent(uuid, (key, index) -> {
+            releaseEligible(index.headMap(version, true), now, released);
+            return index.isEmpty() ? null : index;
+        });
+        return released;
+    }
+
+    public boolean remove(UUID uuid, PollContainer<?> container) {
+        final boolean[] removed = {false};
+        queues.computeIfPresent(uuid, (key, index) -> {
+            removed[0] = removeFrom(index, container);
+            return index.isEmpty() ? null : index;
+        });
+        return removed[0];
+    }
+
+    public int size() {
+        return waiters.get();
+    }
+
+    public int size(UUID uuid) {
+        final NavigableMap<Long, Queue<PollContainer<T>>> index = queues.get(uuid);
+        return index == null ? 0 : index.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    public int buckets() {
+        return queues.size();
+    }
+
+    private void releaseEligible(
+            NavigableMap<Long, Queue<PollContainer<T>>> eligible, Instant now, List<PollContainer<T>> released
+    ) {
+        for (Queue<PollContainer<T>> bucket : eligible.values()) {
+            for (PollContainer<T> container : bucket) {
+                waiters.decrementAndGet();
+                if (container.getTimeoutsAt().isAfter(now)) {
+                    released.add(container);
+                }
+            }
+        }
+        eligible.clear();
+    }
+
+    private boolean removeFrom(
+            NavigableMap<Long, Queue<PollContainer<T>>> index, PollContainer<?> container
+    ) {
+        final Queue<PollContainer<T>> bucket = index.get(container.getVersion());
+        if (bucket == null || !bucket.remove(container)) {
+            return false;
+        }
+        waiters.decrementAndGet();
+        if (bucket.isEmpty()) {
+            index.remove(container.getVersion());
+        }
+        return true;
+    }
+}
@@ -23,16 +23,20 @@
 package org.fairdatatrain.trainhandler.service.async;
 
 import lombok.RequiredArgsConstructor;
-import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
 import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.service.run.RunMapper;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.annotation.PostConstruct;
 import java.time.Instant;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static java.lang.String.format;
 
@@ -41,9 +45,22 @@ import static java.lang.String.format;
 @RequiredArgsConstructor
 public class RunNotificationListener {
 
+    private static final String TYPE = "run";
+
     private final DispatcherConfig config;
 
-    private final Map<UUID, List<PollContainer<RunDTO>>> queues = new HashMap<>();
+    private final PollExpiryWheel expiryWheel;
+
+    private final SnapshotCache snapshotCache;
+
+    private final RunMapper runMapper;
+
+    private final PollRegistry<byte[]> registry = new PollRegistry<>();
+
+    @PostConstruct
+    public void init() {
+        expiryWheel.register(TYPE, registry);
+    }
 
     @EventListener
     public void handleJobEventNotification(JobNotification notification) {
@@ -51,76 +68,76 @@ public class RunNotificationListener {
         updateResults(notification.getRun());
     }
 
-    @Synchronized
     public void updateResults(RunDTO run) {
         log.info(format(
                 "Updating results for run '%s' (version '%s')",
-                run.getUuid(), run.getVersion())
-        );
-        final Instant now = Instant.now();
-        if (queues.containsKey(run.getUuid())) {
-            final List<PollContainer<RunDTO>> remaining = new ArrayList<>();
-            queues.get(run.getUuid())
-                    .stream()
-                    .filter(container -> container.getTimeoutsAt().isAfter(now))
-                    .forEach(container -> {
-                        if (container.getVersion() <= run.getVersion()) {
-                            log.info(format("Sending run for requested version: %s",
-                                    container.getVersion()));
-                            container.getResult().setResult(run);
-                        }
-                        else {
-                            remaining.add(container);
-                        }
-                    });
-            log.debug(format(
-                    "Run %s queue size before %s and after %s",
-                    run.getUuid(), queues.get(run.getUuid()).size(), remaining.size()
-            ));
-            queues.put(run.getUuid(), remaining);
+                run.getUuid(), run.getVersion()
+        ));
+        final List<PollContainer<byte[]>> released =
+                registry.release(run.getUuid(), run.getVersion());
+        if (released.isEmpty()) {
+            return;
         }
+        released.forEach(container -> {
+            log.info(format("Sending run for requested version: %s", container.getVersion()));
+            container.getResult().setResult(render(run, container));
+        });
+        log.debug(format(
+                "Run %s released %s and remaining %s",
+                run.getUuid(), released.size(), registry.size(run.getUuid())
+        ));
         log.info(format(
                 "Updating results for run '%s' (version '%s'): done",
                 run.getUuid(), run.getVersion()
         ));
     }
 
-    @Synchronized
-    public void enqueue(UUID runUuid, Long version, DeferredResult<RunDTO> result) {
+    public void enqueue(UUID runUuid, Long version, PollMode mode, DeferredResult<byte[]> result) {
         log.info(format(
                 "Enqueueing deferred result for run '%s' (version '%s')",
                 runUuid, version
         ));
-        final Instant now = Instant.now();
-        if (!queues.containsKey(runUuid)) {
-            log.debug("Initializing new run queue");
-            queues.put(runUuid, new ArrayList<>());
-        }
-        else {
-            log.debug("Cleaning up existing job queue");
-            final List<PollContainer<RunDTO>> remaining = new ArrayList<>();
-            queues.get(runUuid).forEach(container -> {
-                if (container.getTimeoutsAt().isAfter(now)) {
-                    remaining.add(container);
-                }
-            });
-            log.debug(format(
-                    "Existing run queue size before %s and after %s",
-                    queues.get(runUuid).size(), remaining.size()
-            ));
-            queues.put(runUuid, remaining);
-        }
-        queues.get(runUuid).add(
-                new PollContainer<>(
-                        version,
-                        config.getPolling().getTimeoutForCurrentPoll(),
-                        result
-                )
+        final PollContainer<byte[]> container = new PollContainer<>(
+                version,
+                config.getPolling().getTimeoutForCurrentPoll(),
+                mode,
+                result
         );
+        registry.enqueue(runUuid, container);
+        expiryWheel.schedule(TYPE, registry, runUuid, container);
         log.debug(format(
                 "Enqueueing deferred result for run '%s' (version '%s'): done",
                 runUuid, version
         ));
     }
 
+    public void enqueueBatch(Map<UUID, Long> versions, DeferredResult<byte[]> result) {
+        log.info(format("Enqueueing batch deferred result for %s %s(s)", versions.size(), TYPE));
+        final Instant timeoutsAt = config.getPolling().getTimeoutForCurrentPoll();
+        final List<Map.Entry<UUID, PollContainer<byte[]>>> containers = new ArrayList<>();
+        versions.forEach((runUuid, version) -> {
+            final PollContainer<byte[]> container =
+                    new PollContainer<>(version, timeoutsAt, PollMode.BATCH, result);
+            registry.enqueue(runUuid, container);
+            expiryWheel.schedule(TYPE, registry, runUuid, container);
+            containers.add(Map.entry(runUuid, container));
+        });
+        result.onCompletion(() -> {
+            containers.forEach(entry -> registry.remove(entry.getKey(), entry.getValue()));
+        });
+    }
+
+    private byte[] render(RunDTO run, PollContainer<byte[]> container) {
+        if (container.getMode() == PollMode.DELTA) {
+            final Long since = container.getVersion();
+            return snapshotCache.get(
+                    run.getUuid(), run.getVersion(), since, () -> runMapper.toDeltaDTO(run, since)
+            );
+        }
+        final byte[] json = snapshotCache.get(run.getUuid(), run.getVersion(), () -> run);
+        if (container.getMode() == PollMode.BATCH) {
+            return SnapshotCache.toJsonArray(List.of(json));
+        }
+        return json;
+    }
 }
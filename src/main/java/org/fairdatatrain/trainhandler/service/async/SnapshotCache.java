@@ -0,0 +1,94 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class SnapshotCache {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final DispatcherConfig config;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<SnapshotKey, byte[]> snapshots = Collections.synchronizedMap(newSnapshots());
+
+    public byte[] get(UUID uuid, Long version, Supplier<?> supplier) {
+        return get(uuid, version, null, supplier);
+    }
+
+    @SneakyThrows
+    public byte[] get(UUID uuid, Long version, Long since, Supplier<?> supplier) {
+        final SnapshotKey key = new SnapshotKey(uuid, version, since);
+        final byte[] cached = snapshots.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final byte[] json = objectMapper.writeValueAsBytes(supplier.get());
+        final byte[] previous = snapshots.putIfAbsent(key, json);
+        return previous == null ? json : previous;
+    }
+
+    public static byte[] toJsonArray(List<byte[]> items) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                output.write(',');
+            }
+            output.writeBytes(items.get(i));
+        }
+        output.write(']');
+        return output.toByteArray();
+    }
+
+    private Map<SnapshotKey, byte[]> newSnapshots() {
+        // access-ordered, evicting the least recently used snapshot over capacity
+        return new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SnapshotKey, byte[]> eldest) {
+                return size() > config.getPolling().getSnapshotCacheSize();
+            }
+        };
+    }
+
+    private record SnapshotKey(UUID uuid, Long version, Long since) {
+    }
+}
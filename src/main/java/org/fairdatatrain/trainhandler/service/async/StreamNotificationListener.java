@@ -0,0 +1,182 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StreamNotificationListener {
+
+    private static final String EVENT_RUN = "run";
+
+    private static final String EVENT_JOB = "job";
+
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final DispatcherConfig config;
+
+    private final SnapshotCache snapshotCache;
+
+    private final Map<UUID, Set<Subscription>> runStreams = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Set<Subscription>> jobStreams = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void handleJobEventNotification(JobNotification notification) {
+        log.debug("Handling new stream notification");
+        final RunDTO run = notification.getRun();
+        publish(runStreams, run.getUuid(), EVENT_RUN, run.getVersion(), run);
+        final JobDTO job = notification.getJob();
+        if (job != null) {
+            publish(jobStreams, job.getUuid(), EVENT_JOB, job.getVersion(), job);
+        }
+    }
+
+    public SseEmitter subscribeRun(UUID runUuid, Long version, RunDTO currentRun) {
+        log.info(format("Opening stream for run '%s' (version '%s')", runUuid, version));
+        return subscribe(runStreams, runUuid, EVENT_RUN, version, currentRun.getVersion(), currentRun);
+    }
+
+    public SseEmitter subscribeJob(UUID jobUuid, Long version, JobDTO currentJob) {
+        log.info(format("Opening stream for job '%s' (version '%s')", jobUuid, version));
+        return subscribe(jobStreams, jobUuid, EVENT_JOB, version, currentJob.getVersion(), currentJob);
+    }
+
+    @Scheduled(
+            initialDelayString = "${dispatcher.polling.heartbeat:PT15S}",
+            fixedRateString = "${dispatcher.polling.heartbeat:PT15S}"
+    )
+    public void heartbeat() {
+        sendHeartbeats(runStreams);
+        sendHeartbeats(jobStreams);
+    }
+
+    private SseEmitter subscribe(
+            Map<UUID, Set<Subscription>> streams,
+            UUID uuid,
+            String eventName,
+            Long version,
+            Long currentVersion,
+            Object current
+    ) {
+        final SseEmitter emitter = new SseEmitter(config.getPolling().getStreamTimeoutMs());
+        final Subscription subscription = new Subscription(emitter, new AtomicLong(version));
+        emitter.onCompletion(() -> unsubscribe(streams, uuid, subscription));
+        emitter.onTimeout(() -> unsubscribe(streams, uuid, subscription));
+        emitter.onError(error -> unsubscribe(streams, uuid, subscription));
+        streams.computeIfAbsent(uuid, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        if (currentVersion > version) {
+            final byte[] json = snapshotCache.get(uuid, currentVersion, () -> current);
+            send(streams, uuid, subscription, eventName, currentVersion, json);
+        }
+        return emitter;
+    }
+
+    private void publish(
+            Map<UUID, Set<Subscription>> streams,
+            UUID uuid,
+            String eventName,
+            Long version,
+            Object data
+    ) {
+        final Set<Subscription> subscriptions = streams.get(uuid);
+        if (subscriptions == null) {
+            return;
+        }
+        log.debug(format(
+                "Pushing %s '%s' (version '%s') to %s stream(s)",
+                eventName, uuid, version, subscriptions.size()
+        ));
+        final byte[] json = snapshotCache.get(uuid, version, () -> data);
+        subscriptions.forEach(subscription -> send(streams, uuid, subscription, eventName, version, json));
+    }
+
+    private void send(
+            Map<UUID, Set<Subscription>> streams,
+            UUID uuid,
+            Subscription subscription,
+            String eventName,
+            Long version,
+            byte[] json
+    ) {
+        final long previous = subscription.version().getAndAccumulate(version, Math::max);
+        if (previous >= version) {
+            return;
+        }
+        try {
+            subscription.emitter().send(SseEmitter.event()
+                    .id(version.toString())
+                    .name(eventName)
+                    .data(json, MediaType.APPLICATION_JSON));
+        }
+        catch (IOException | IllegalStateException exception) {
+            log.debug(format("Stream for '%s' closed: %s", uuid, exception.getMessage()));
+            unsubscribe(streams, uuid, subscription);
+        }
+    }
+
+    private void sendHeartbeats(Map<UUID, Set<Subscription>> streams) {
+        streams.forEach((uuid, subscriptions) -> {
+            subscriptions.forEach(subscription -> sendHeartbeat(streams, uuid, subscription));
+        });
+    }
+
+    private void sendHeartbeat(Map<UUID, Set<Subscription>> streams, UUID uuid, Subscription subscription) {
+        try {
+            subscription.emitter().send(SseEmitter.event().comment(HEARTBEAT));
+        }
+        catch (IOException | IllegalStateException exception) {
+            unsubscribe(streams, uuid, subscription);
+        }
+    }
+
+    private void unsubscribe(Map<UUID, Set<Subscription>> streams, UUID uuid, Subscription subscription) {
+        streams.computeIfPresent(uuid, (key, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private record Subscription(SseEmitter emitter, AtomicLong version) {
+    }
+}
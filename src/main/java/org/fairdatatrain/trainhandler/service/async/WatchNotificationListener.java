@@ -0,0 +1,187 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.api.dto.watch.WatchFrameDTO;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WatchNotificationListener {
+
+    private static final String TYPE_RUN = "run";
+
+    private static final String TYPE_JOB = "job";
+
+    private final DispatcherConfig config;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<UUID>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Set<String>> subscribers = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void handleJobEventNotification(JobNotification notification) {
+        final RunDTO run = notification.getRun();
+        final Set<String> targets = new HashSet<>(subscribers.getOrDefault(run.getUuid(), Set.of()));
+        if (!targets.isEmpty()) {
+            send(targets, WatchFrameDTO.builder()
+                    .type(TYPE_RUN)
+                    .uuid(run.getUuid())
+                    .runUuid(run.getUuid())
+                    .status(run.getStatus().toString())
+                    .version(run.getVersion())
+                    .build());
+        }
+        final JobDTO job = notification.getJob();
+        if (job != null) {
+            targets.addAll(subscribers.getOrDefault(job.getUuid(), Set.of()));
+            if (!targets.isEmpty()) {
+                send(targets, WatchFrameDTO.builder()
+                        .type(TYPE_JOB)
+                        .uuid(job.getUuid())
+                        .runUuid(run.getUuid())
+                        .status(job.getStatus().toString())
+                        .version(job.getVersion())
+                        .build());
+            }
+        }
+    }
+
+    public void open(WebSocketSession session) {
+        log.info(format("Opening watch session %s", session.getId()));
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(
+                session,
+                config.getPolling().getWatchSendTimeLimitMs(),
+                config.getPolling().getWatchBufferSizeBytes(),
+                // a slow session is closed rather than silently losing frames, so the
+                // client reconnects and resubscribes from the current versions
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE
+        ));
+        sessionSubscriptions.put(session.getId(), ConcurrentHashMap.newKeySet());
+    }
+
+    public void subscribe(WebSocketSession session, Collection<UUID> uuids) {
+        final Set<UUID> subscriptions = sessionSubscriptions.get(session.getId());
+        if (subscriptions == null) {
+            return;
+        }
+        uuids.forEach(uuid -> {
+            subscriptions.add(uuid);
+            subscribers.computeIfAbsent(uuid, key -> ConcurrentHashMap.newKeySet()).add(session.getId());
+        });
+    }
+
+    public void unsubscribe(WebSocketSession session, Collection<UUID> uuids) {
+        final Set<UUID> subscriptions = sessionSubscriptions.get(session.getId());
+        if (subscriptions == null) {
+            return;
+        }
+        uuids.forEach(uuid -> {
+            subscriptions.remove(uuid);
+            removeSubscriber(uuid, session.getId());
+        });
+    }
+
+    public void close(WebSocketSession session) {
+        log.info(format("Closing watch session %s", session.getId()));
+        sessions.remove(session.getId());
+        final Set<UUID> subscriptions = sessionSubscriptions.remove(session.getId());
+        if (subscriptions != null) {
+            subscriptions.forEach(uuid -> removeSubscriber(uuid, session.getId()));
+        }
+    }
+
+    private void send(Set<String> sessionIds, WatchFrameDTO frame) {
+        final TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(frame));
+        }
+        catch (JsonProcessingException exception) {
+            log.error(format("Cannot serialize watch frame: %s", exception.getMessage()));
+            return;
+        }
+        sessionIds.forEach(sessionId -> send(sessionId, message));
+    }
+
+    private void send(String sessionId, TextMessage message) {
+        final WebSocketSession session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        try {
+            session.sendMessage(message);
+        }
+        catch (IOException | IllegalStateException | SessionLimitExceededException exception) {
+            log.info(format(
+                    "Dropping slow or broken watch session %s: %s",
+                    sessionId, exception.getMessage()
+            ));
+            close(session);
+            closeQuietly(session);
+        }
+    }
+
+    private void removeSubscriber(UUID uuid, String sessionId) {
+        subscribers.computeIfPresent(uuid, (key, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+
+    private void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        }
+        catch (IOException exception) {
+            log.debug(format("Closing watch session failed: %s", exception.getMessage()));
+        }
+    }
+}
@@ -43,6 +43,9 @@ public class DispatchMapper {
                 .callbackEventLocation(makeCallback(
                         JobEventController.EVENT_CALLBACK_LOCATION, job
                 ))
+                .callbackEventBatchLocation(makeCallback(
+                        JobEventController.EVENT_BATCH_CALLBACK_LOCATION, job
+                ))
                 .callbackArtifactLocation(makeCallback(
                         JobArtifactController.ARTIFACT_CALLBACK_LOCATION, job
                 ))
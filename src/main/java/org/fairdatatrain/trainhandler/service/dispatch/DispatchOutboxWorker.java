@@ -0,0 +1,272 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.dispatch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.config.properties.DispatchProperties;
+import org.fairdatatrain.trainhandler.data.model.DispatchOutboxEntry;
+import org.fairdatatrain.trainhandler.data.model.Job;
+import org.fairdatatrain.trainhandler.data.model.Station;
+import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
+import org.fairdatatrain.trainhandler.data.repository.DispatchOutboxRepository;
+import org.fairdatatrain.trainhandler.service.job.event.JobEventService;
+import org.fairdatatrain.trainhandler.service.station.health.StationCircuitBreaker;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.String.format;
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
+
+/**
+ * Drains the dispatch outbox: claims due entries, POSTs their jobs to the
+ * stations within the dispatch permits and either records the job as running
+ * or reschedules the entry with exponential backoff and jitter until the
+ * attempt budget is exhausted. Jobs over the limits of their station or
+ * targeting a station with an open circuit stay queued and are held back
+ * without spending an attempt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DispatchOutboxWorker {
+
+    private static final int MAX_EXPONENT = 20;
+
+    private final DispatcherConfig config;
+
+    private final DispatchOutboxRepository dispatchOutboxRepository;
+
+    private final DispatchService dispatchService;
+
+    private final DispatchPermits dispatchPermits;
+
+    private final StationDispatchLimiter stationDispatchLimiter;
+
+    private final StationCircuitBreaker stationCircuitBreaker;
+
+    private final JobEventService jobEventService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(
+            initialDelayString = "${dispatcher.dispatch.outboxInterval:PT1S}",
+            fixedDelayString = "${dispatcher.dispatch.outboxInterval:PT1S}"
+    )
+    public void drain() {
+        final DispatchProperties properties = config.getDispatch();
+        boolean more = true;
+        while (more) {
+            // claim only what can be sent right away, so no claimed entry
+            // waits for a permit while its lease runs out
+            final int limit = Math.min(properties.getBatchSize(), dispatchPermits.available());
+            if (limit <= 0) {
+                return;
+            }
+            final Timestamp timestamp = now();
+            final List<DispatchOutboxEntry> entries = dispatchOutboxRepository.claimDue(
+                    timestamp,
+                    config.getCluster().getNodeId(),
+                    Timestamp.from(timestamp.toInstant().plus(properties.getLeaseDuration())),
+                    limit
+            );
+            more = dispatch(entries) && entries.size() == limit;
+        }
+    }
+
+    private boolean dispatch(List<DispatchOutboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return false;
+        }
+        log.debug(format("Dispatching %s job(s) from outbox", entries.size()));
+        boolean dispatchedAll = true;
+        for (DispatchOutboxEntry entry : entries) {
+            final String host = hostOf(entry.getJob());
+            if (!dispatchPermits.tryAcquire(host)) {
+                holdBack(entry, Duration.ZERO, false);
+                dispatchedAll = false;
+                continue;
+            }
+            Mono.defer(() -> attempt(entry))
+                    .onErrorResume(exception -> {
+                        log.warn(format(
+                                "Dispatching job %s failed: %s",
+                                entry.getJob().getUuid(), exception.getMessage()
+                        ));
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> dispatchPermits.release(host))
+                    .subscribe();
+        }
+        return dispatchedAll;
+    }
+
+    private Mono<Void> attempt(DispatchOutboxEntry entry) {
+        final Job job = entry.getJob();
+        if (!job.getStatus().equals(JobStatus.QUEUED)) {
+            log.info(format(
+                    "Job %s no longer queued (%s), dropping dispatch", job.getUuid(), job.getStatus()
+            ));
+            dispatchOutboxRepository.delete(entry);
+            return Mono.empty();
+        }
+        final Station station = job.getTarget().getStation();
+        // limiter first: a half-open circuit lets a single trial through, which
+        // must then be dispatched (and recorded), not held back by the limiter
+        if (!stationDispatchLimiter.tryAcquire(station)) {
+            log.debug(format("Station limits reached, holding back job %s", job.getUuid()));
+            holdBack(entry, config.getDispatch().getThrottleDelay(), true);
+            return Mono.empty();
+        }
+        if (!stationCircuitBreaker.allowRequest(station.getUuid())) {
+            log.debug(format(
+                    "Circuit of station %s open, holding back job %s", station.getUuid(), job.getUuid()
+            ));
+            stationDispatchLimiter.release(station);
+            holdBack(entry, config.getHealth().getOpenDuration(), false);
+            return Mono.empty();
+        }
+        try {
+            return dispatchService.dispatch(job)
+                    .publishOn(Schedulers.boundedElastic())
+                    .then(Mono.fromRunnable(() -> {
+                        stationCircuitBreaker.recordSuccess(station.getUuid());
+                        succeed(entry);
+                    }))
+                    .onErrorResume(exception -> {
+                        return Mono.fromRunnable(() -> {
+                            stationCircuitBreaker.recordFailure(station.getUuid());
+                            fail(entry, exception);
+                        });
+                    })
+                    .doFinally(signal -> {
+                        stationDispatchLimiter.release(station);
+                    })
+                    .then();
+        }
+        catch (Exception exception) {
+            stationCircuitBreaker.recordFailure(station.getUuid());
+            fail(entry, exception);
+            stationDispatchLimiter.release(station);
+            return Mono.empty();
+        }
+    }
+
+    private void holdBack(DispatchOutboxEntry entry, Duration delay, boolean throttled) {
+        entry.setThrottled(throttled);
+        entry.setNextAttemptAt(Timestamp.from(Instant.now().plus(delay)));
+        entry.setLeaseOwner(null);
+        entry.setLeaseExpiresAt(null);
+        dispatchOutboxRepository.save(entry);
+    }
+
+    private void succeed(DispatchOutboxEntry entry) {
+        final Job job = entry.getJob();
+        complete(entry, JobStatus.RUNNING, "Job dispatched by train handler");
+        log.info(format("Job %s dispatched (attempt %s)", job.getUuid(), entry.getAttempts() + 1));
+    }
+
+    private void fail(DispatchOutboxEntry entry, Throwable exception) {
+        final DispatchProperties properties = config.getDispatch();
+        final int attempts = entry.getAttempts() + 1;
+        log.warn(format(
+                "Failed to dispatch job %s (attempt %s of %s): %s",
+                entry.getJob().getUuid(), attempts, properties.getMaxAttempts(), exception.getMessage()
+        ));
+        if (attempts >= properties.getMaxAttempts()) {
+            complete(entry, JobStatus.ERRORED, format(
+                    "Dispatch failed after %s attempt(s): %s", attempts, exception.getMessage()
+            ));
+            return;
+        }
+        entry.setAttempts(attempts);
+        entry.setNextAttemptAt(Timestamp.from(Instant.now().plus(backoff(attempts))));
+        entry.setLastError(exception.getMessage());
+        entry.setThrottled(false);
+        entry.setLeaseOwner(null);
+        entry.setLeaseExpiresAt(null);
+        dispatchOutboxRepository.save(entry);
+    }
+
+    private void complete(DispatchOutboxEntry entry, JobStatus status, String message) {
+        final Job job = entry.getJob();
+        try {
+            final Boolean applied = transactionTemplate.execute(transaction -> {
+                return completeEntry(entry, status, message);
+            });
+            if (Boolean.TRUE.equals(applied)) {
+                jobEventService.notify(job.getRun().getUuid(), job.getUuid());
+            }
+            else {
+                log.info(format("Job %s moved on before its dispatch was recorded", job.getUuid()));
+            }
+        }
+        catch (Exception exception) {
+            log.warn(format(
+                    "Recording dispatch of job %s failed: %s", job.getUuid(), exception.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Applies the dispatch outcome unless a callback already moved the job
+     * on, and removes the outbox entry in the same transaction either way.
+     */
+    @SneakyThrows
+    private boolean completeEntry(DispatchOutboxEntry entry, JobStatus status, String message) {
+        final boolean applied = jobEventService.createDispatchEvent(entry.getJob(), status, message);
+        dispatchOutboxRepository.deleteById(entry.getUuid());
+        return applied;
+    }
+
+    private Duration backoff(int attempts) {
+        final DispatchProperties properties = config.getDispatch();
+        final long initial = properties.getInitialBackoff().toMillis();
+        final long max = properties.getMaxBackoff().toMillis();
+        final long exponential = Math.min(max, initial * (1L << Math.min(attempts - 1, MAX_EXPONENT)));
+        final long half = Math.max(1, exponential / 2);
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half));
+    }
+
+    private static String hostOf(Job job) {
+        final String uri = job.getTarget().getStation().getUri();
+        try {
+            return Optional.ofNullable(URI.create(uri).getAuthority()).orElse(uri);
+        }
+        catch (IllegalArgumentException exception) {
+            return uri;
+        }
+    }
+}
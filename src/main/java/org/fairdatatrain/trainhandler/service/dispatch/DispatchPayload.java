@@ -43,6 +43,9 @@ public class DispatchPayload {
     @NotNull
     private String callbackEventLocation;
 
+    @NotNull
+    private String callbackEventBatchLocation;
+
     @NotNull
     private String callbackArtifactLocation;
 
@@ -0,0 +1,80 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.dispatch;
+
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Permits for dispatch requests in flight on this node: one pool bounding
+ * the overall concurrency and one per station host. They are shared by all
+ * drains of the outbox, so the limits hold no matter how many drains run
+ * at the same time.
+ */
+@Component
+@RequiredArgsConstructor
+public class DispatchPermits {
+
+    private final DispatcherConfig config;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private Semaphore globalPermits;
+
+    @PostConstruct
+    public void init() {
+        globalPermits = new Semaphore(Math.max(1, config.getDispatch().getConcurrency()));
+    }
+
+    public int available() {
+        return globalPermits.availablePermits();
+    }
+
+    public boolean tryAcquire(String host) {
+        if (!globalPermits.tryAcquire()) {
+            return false;
+        }
+        if (!hostPermitsOf(host).tryAcquire()) {
+            globalPermits.release();
+            return false;
+        }
+        return true;
+    }
+
+    public void release(String host) {
+        hostPermitsOf(host).release();
+        globalPermits.release();
+    }
+
+    private Semaphore hostPermitsOf(String host) {
+        return hostPermits.computeIfAbsent(
+                host, key -> new Semaphore(Math.max(1, config.getDispatch().getPerHostConcurrency()))
+        );
+    }
+}
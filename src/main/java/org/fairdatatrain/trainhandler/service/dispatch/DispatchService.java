@@ -31,6 +31,9 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
 
 import static java.lang.String.format;
 
@@ -41,37 +44,36 @@ public class DispatchService {
 
     private final DispatchMapper dispatchMapper;
 
-    private final WebClient webClient;
+    private final WebClient dispatchWebClient;
 
-    public void dispatch(Job job) throws JsonProcessingException {
-        if (!job.getStatus().equals(JobStatus.PREPARED)) {
-            throw new RuntimeException("Job not in state PREPARED, cannot dispatch");
+    public Mono<Void> dispatch(Job job) throws JsonProcessingException {
+        if (!job.getStatus().equals(JobStatus.QUEUED)) {
+            throw new RuntimeException("Job not in state QUEUED, cannot dispatch");
         }
         final DispatchPayload payload = dispatchMapper.toPayload(job);
         // TODO: should it POST directly to the station URI or some other endpoint?
         // TODO: what should be the response?
+        final UUID jobUuid = job.getUuid();
         final String uri = job.getTarget().getStation().getUri();
-        log.info(format("Dispatching job %s by POST to %s", job.getUuid(), uri));
-        try {
-            final String response = webClient
-                    .post()
-                    .uri(uri)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(payload)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        }
-        catch (WebClientException exception) {
-            exception.printStackTrace();
-            log.warn(format(
-                    "Dispatching job %s failed: %s", job.getUuid(), exception.getMessage()
-            ));
-            throw new RuntimeException(
-                    "Station responded with status: " + exception.getMessage()
-            );
-        }
-        log.info(format("Dispatching job %s accepted", job.getUuid()));
+        return dispatchWebClient
+                .post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .bodyToMono(String.class)
+                .doOnSubscribe(subscription -> {
+                    log.info(format("Dispatching job %s by POST to %s", jobUuid, uri));
+                })
+                .doOnSuccess(response -> log.info(format("Dispatching job %s accepted", jobUuid)))
+                .onErrorMap(WebClientException.class, exception -> {
+                    log.warn(format(
+                            "Dispatching job %s failed: %s", jobUuid, exception.getMessage()
+                    ));
+                    return new RuntimeException(
+                            "Station responded with status: " + exception.getMessage()
+                    );
+                })
+                .then();
     }
-
 }
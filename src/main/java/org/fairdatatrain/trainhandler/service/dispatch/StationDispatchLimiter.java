@@ -0,0 +1,116 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.dispatch;
+
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.config.properties.DispatchProperties;
+import org.fairdatatrain.trainhandler.data.model.Station;
+import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
+import org.fairdatatrain.trainhandler.data.repository.JobRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-station dispatch limits: a cap on concurrently running jobs and a
+ * token bucket on the dispatch rate. Limits set on the station take
+ * precedence over the configured defaults; non-positive values disable
+ * the respective limit.
+ *
+ * <p>Running jobs are counted in the database, so the cap holds across
+ * nodes up to the requests that are still in flight on other nodes.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class StationDispatchLimiter {
+
+    private static final List<JobStatus> OCCUPYING_STATUSES = List.of(JobStatus.RUNNING, JobStatus.ABORTING);
+
+    private final DispatcherConfig config;
+
+    private final JobRepository jobRepository;
+
+    private final Map<UUID, StationSlots> slots = new ConcurrentHashMap<>();
+
+    public boolean tryAcquire(Station station) {
+        final DispatchProperties properties = config.getDispatch();
+        final int maxConcurrentJobs = Optional.ofNullable(station.getMaxConcurrentJobs())
+                .orElse(properties.getStationMaxConcurrentJobs());
+        final double dispatchRate = Optional.ofNullable(station.getDispatchRate())
+                .orElse(properties.getStationDispatchRate());
+        final long running = maxConcurrentJobs > 0
+                ? jobRepository.countByTargetStationUuidAndStatusIn(station.getUuid(), OCCUPYING_STATUSES)
+                : 0;
+        final int burst = Math.max(1, properties.getStationDispatchBurst());
+        final StationSlots stationSlots = slots.computeIfAbsent(station.getUuid(), key -> new StationSlots());
+        synchronized (stationSlots) {
+            if (maxConcurrentJobs > 0 && running + stationSlots.inFlight >= maxConcurrentJobs) {
+                return false;
+            }
+            if (dispatchRate > 0 && !stationSlots.takeToken(dispatchRate, burst)) {
+                return false;
+            }
+            stationSlots.inFlight++;
+            return true;
+        }
+    }
+
+    public void release(Station station) {
+        final StationSlots stationSlots = slots.get(station.getUuid());
+        if (stationSlots != null) {
+            synchronized (stationSlots) {
+                stationSlots.inFlight = Math.max(0, stationSlots.inFlight - 1);
+            }
+        }
+    }
+
+    private static final class StationSlots {
+
+        private int inFlight;
+
+        private double tokens = -1;
+
+        private long refilledAt = System.nanoTime();
+
+        private boolean takeToken(double rate, int burst) {
+            final long now = System.nanoTime();
+            if (tokens < 0) {
+                tokens = burst;
+            }
+            final double elapsed = (double) (now - refilledAt) / TimeUnit.SECONDS.toNanos(1);
+            tokens = Math.min(burst, tokens + elapsed * rate);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -47,7 +47,7 @@ import static org.fairdatatrain.trainhandler.utils.RdfIOUtils.read;
 @RequiredArgsConstructor
 public class BaseIndexer {
 
-    private final WebClient webClient;
+    private final WebClient indexerWebClient;
 
     public List<String> extractChildren(Model model) {
         return model
@@ -61,7 +61,7 @@ public class BaseIndexer {
     public Model makeRequest(String uri) {
         log.info(format("Making request to '%s'", uri));
         try {
-            final String response = webClient
+            final String response = indexerWebClient
                     .get()
                     .uri(URI.create(uri))
                     .accept(MediaType.parseMediaType(RDFFormat.TURTLE.getDefaultMIMEType()))
@@ -23,6 +23,7 @@
 package org.fairdatatrain.trainhandler.service.job;
 
 import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
+import org.fairdatatrain.trainhandler.api.dto.job.JobDeltaDTO;
 import org.fairdatatrain.trainhandler.api.dto.job.JobSimpleDTO;
 import org.fairdatatrain.trainhandler.data.model.*;
 import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
@@ -36,6 +37,7 @@ import org.springframework.stereotype.Component;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -129,6 +131,54 @@ public class JobMapper {
                 .build();
     }
 
+    public JobDeltaDTO toDeltaDTO(
+            Job job, List<JobEvent> events, List<JobArtifact> artifacts, Long since
+    ) {
+        return JobDeltaDTO.builder()
+                .uuid(job.getUuid())
+                .remoteId(job.getRemoteId())
+                .status(job.getStatus())
+                .startedAt(
+                        Optional.ofNullable(job.getStartedAt())
+                                .map(Timestamp::toInstant)
+                                .map(Instant::toString)
+                                .orElse(null))
+                .finishedAt(
+                        Optional.ofNullable(job.getFinishedAt())
+                                .map(Timestamp::toInstant)
+                                .map(Instant::toString)
+                                .orElse(null))
+                .events(events.stream().map(jobEventMapper::toDTO).toList())
+                .artifacts(artifacts.stream().map(jobArtifactMapper::toDTO).toList())
+                .since(since)
+                .version(job.getVersion())
+                .build();
+    }
+
+    public JobDeltaDTO toDeltaDTO(JobDTO job, Long since) {
+        return JobDeltaDTO.builder()
+                .uuid(job.getUuid())
+                .remoteId(job.getRemoteId())
+                .status(job.getStatus())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .events(job
+                        .getEvents()
+                        .stream()
+                        .filter(event -> event.getVersion() > since)
+                        .toList()
+                )
+                .artifacts(job
+                        .getArtifacts()
+                        .stream()
+                        .filter(artifact -> artifact.getVersion() > since)
+                        .toList()
+                )
+                .since(since)
+                .version(job.getVersion())
+                .build();
+    }
+
     public Job fromTarget(Run run, PlanTarget target) {
         return Job.builder()
                 .uuid(UUID.randomUUID())
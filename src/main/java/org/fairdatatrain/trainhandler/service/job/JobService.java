@@ -25,17 +25,30 @@ package org.fairdatatrain.trainhandler.service.job;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
+import org.fairdatatrain.trainhandler.api.dto.job.JobDeltaDTO;
 import org.fairdatatrain.trainhandler.api.dto.job.JobSimpleDTO;
 import org.fairdatatrain.trainhandler.data.model.Job;
+import org.fairdatatrain.trainhandler.data.model.JobArtifact;
+import org.fairdatatrain.trainhandler.data.model.JobEvent;
+import org.fairdatatrain.trainhandler.data.repository.JobArtifactRepository;
+import org.fairdatatrain.trainhandler.data.repository.JobEventRepository;
 import org.fairdatatrain.trainhandler.data.repository.JobRepository;
 import org.fairdatatrain.trainhandler.exception.NotFoundException;
 import org.fairdatatrain.trainhandler.service.async.JobNotificationListener;
+import org.fairdatatrain.trainhandler.service.async.JsonSnapshot;
+import org.fairdatatrain.trainhandler.service.async.PollMode;
+import org.fairdatatrain.trainhandler.service.async.SnapshotCache;
+import org.fairdatatrain.trainhandler.service.async.StreamNotificationListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static java.lang.String.format;
@@ -49,10 +62,18 @@ public class JobService {
 
     private final JobRepository jobRepository;
 
+    private final JobEventRepository jobEventRepository;
+
+    private final JobArtifactRepository jobArtifactRepository;
+
     private final JobMapper jobMapper;
 
     private final JobNotificationListener jobNotificationListener;
 
+    private final StreamNotificationListener streamNotificationListener;
+
+    private final SnapshotCache snapshotCache;
+
     public Job getByIdOrThrow(UUID uuid) throws NotFoundException {
         return jobRepository
                 .findById(uuid)
@@ -65,29 +86,79 @@ public class JobService {
                 .map(jobMapper::toSimpleDTO);
     }
 
-    public JobDTO getSingle(UUID runUuid, UUID jobUuid) throws NotFoundException {
+    public Job getByIdForRunOrThrow(UUID runUuid, UUID jobUuid) throws NotFoundException {
         final Job job = getByIdOrThrow(jobUuid);
         if (!job.getRun().getUuid().equals(runUuid)) {
             throw new NotFoundException(ENTITY_NAME, jobUuid);
         }
-        return jobMapper.toDTO(job);
+        return job;
+    }
+
+    public JobDTO getSingle(UUID runUuid, UUID jobUuid) throws NotFoundException {
+        return jobMapper.toDTO(getByIdForRunOrThrow(runUuid, jobUuid));
+    }
+
+    @Transactional
+    public JsonSnapshot getSnapshot(
+            UUID runUuid, UUID jobUuid, Long since, PollMode mode
+    ) throws NotFoundException {
+        final Job job = getByIdForRunOrThrow(runUuid, jobUuid);
+        if (mode == PollMode.DELTA) {
+            return new JsonSnapshot(
+                    job.getVersion(),
+                    snapshotCache.get(jobUuid, job.getVersion(), since, () -> getDelta(job, since))
+            );
+        }
+        return new JsonSnapshot(
+                job.getVersion(),
+                snapshotCache.get(jobUuid, job.getVersion(), () -> jobMapper.toDTO(job))
+        );
+    }
+
+    private JobDeltaDTO getDelta(Job job, Long since) {
+        final List<JobEvent> events = jobEventRepository
+                .findAllByJobAndVersionGreaterThanOrderByOccurredAtAsc(job, since);
+        final List<JobArtifact> artifacts = jobArtifactRepository
+                .findAllByJobAndVersionGreaterThanOrderByOccurredAtAsc(job, since);
+        return jobMapper.toDeltaDTO(job, events, artifacts, since);
     }
 
     @Transactional
     public void poll(
             UUID jobUuid,
-            DeferredResult<JobDTO> result,
+            DeferredResult<byte[]> result,
             Long version,
-            JobDTO currentJob
+            JsonSnapshot currentJob,
+            PollMode mode
     ) {
         log.info(format("REQUESTED VERSION: %s", version));
         log.info(format("CURRENT VERSION: %s", currentJob.getVersion()));
         if (version < currentJob.getVersion()) {
-            result.setResult(currentJob);
+            result.setResult(currentJob.getJson());
         }
         else {
             log.info("No job update at this point, enqueueing...");
-            jobNotificationListener.enqueue(jobUuid, version, result);
+            jobNotificationListener.enqueue(jobUuid, version, mode, result);
+        }
+    }
+
+    @Transactional
+    public void pollBatch(UUID runUuid, Map<UUID, Long> versions, DeferredResult<byte[]> result) {
+        final List<Job> jobs = jobRepository.findAllByRunUuid(runUuid);
+        final List<byte[]> changed = jobs.stream()
+                .filter(job -> job.getVersion() > versions.getOrDefault(job.getUuid(), 0L))
+                .map(job -> snapshotCache.get(job.getUuid(), job.getVersion(), () -> jobMapper.toDTO(job)))
+                .toList();
+        if (!changed.isEmpty()) {
+            result.setResult(SnapshotCache.toJsonArray(changed));
+            return;
         }
+        final Map<UUID, Long> watched = new HashMap<>();
+        jobs.forEach(job -> watched.put(job.getUuid(), job.getVersion()));
+        jobNotificationListener.enqueueBatch(watched, result);
+    }
+
+    public SseEmitter stream(UUID jobUuid, Long version, JobDTO currentJob) {
+        return streamNotificationListener.subscribeJob(jobUuid, version, currentJob);
     }
 }
@@ -48,10 +48,11 @@ public class JobArtifactMapper {
                 .occurredAt(artifact.getOccurredAt().toInstant().toString())
                 .createdAt(artifact.getCreatedAt().toInstant().toString())
                 .updatedAt(artifact.getUpdatedAt().toInstant().toString())
+                .version(artifact.getVersion())
                 .build();
     }
 
-    public JobArtifact fromCreateDTO(JobArtifactCreateDTO reqDto, Job job, byte[] data) {
+    public JobArtifact fromCreateDTO(JobArtifactCreateDTO reqDto, Job job, byte[] data, Long version) {
         final Timestamp now = now();
         return JobArtifact
                 .builder()
@@ -65,6 +66,7 @@ public class JobArtifactMapper {
                 .storage(ArtifactStorage.POSTGRES)
                 .occurredAt(Timestamp.from(reqDto.getOccurredAt()))
                 .job(job)
+                .version(version)
                 .createdAt(now)
                 .updatedAt(now)
                 .build();
@@ -44,6 +44,7 @@ import javax.persistence.PersistenceContext;
 import javax.validation.ValidationException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
 import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
@@ -51,6 +52,7 @@ import java.util.UUID;
 
 import static java.lang.String.format;
 import static org.fairdatatrain.trainhandler.utils.HashUtils.bytesToHex;
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
 
 @Service
 @RequiredArgsConstructor
@@ -119,22 +121,21 @@ public class JobArtifactService {
         if (!Objects.equals(job.getSecret(), reqDto.getSecret())) {
             throw new JobSecurityException("Incorrect secret for creating job event");
         }
-        if (job.getRemoteId() == null) {
-            job.setRemoteId(reqDto.getRemoteId());
-        }
-        else if (!Objects.equals(job.getRemoteId(), reqDto.getRemoteId())) {
+        if (job.getRemoteId() != null && !Objects.equals(job.getRemoteId(), reqDto.getRemoteId())) {
             throw new JobSecurityException("Incorrect remote ID for creating job event");
         }
         final byte[] data = Base64.getDecoder().decode(reqDto.getBase64data());
         validate(reqDto, data);
+        final Timestamp now = now();
+        final Long runVersion = runRepository
+                .bumpVersion(runUuid, now.getTime(), now)
+                .orElseThrow(() -> new NotFoundException(RunService.ENTITY_NAME, runUuid));
+        final Long jobVersion = jobRepository
+                .bumpVersion(job.getUuid(), reqDto.getRemoteId(), runVersion, now)
+                .orElseThrow(() -> new NotFoundException(JobService.ENTITY_NAME, jobUuid));
         final JobArtifact jobArtifact = jobArtifactRepository.saveAndFlush(
-                jobArtifactMapper.fromCreateDTO(reqDto, job, data)
+                jobArtifactMapper.fromCreateDTO(reqDto, job, data, jobVersion)
         );
-        job.setVersion(jobArtifact.getUpdatedAt().toInstant().toEpochMilli());
-        jobRepository.saveAndFlush(job);
-        job.getRun().setVersion(job.getVersion());
-        runRepository.saveAndFlush(job.getRun());
-        entityManager.flush();
         entityManager.refresh(jobArtifact);
         return jobArtifactMapper.toDTO(jobArtifact);
     }
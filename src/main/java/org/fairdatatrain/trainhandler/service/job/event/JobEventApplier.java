@@ -0,0 +1,201 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.job.event;
+
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventCreateDTO;
+import org.fairdatatrain.trainhandler.data.model.Job;
+import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
+import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
+import org.fairdatatrain.trainhandler.data.repository.DispatchOutboxRepository;
+import org.fairdatatrain.trainhandler.data.repository.JobRepository;
+import org.fairdatatrain.trainhandler.data.repository.RunRepository;
+import org.fairdatatrain.trainhandler.exception.NotFoundException;
+import org.fairdatatrain.trainhandler.service.job.JobService;
+import org.fairdatatrain.trainhandler.service.run.RunDispatchRequest;
+import org.fairdatatrain.trainhandler.service.run.RunService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
+
+/**
+ * Applies job events to the job and run rows: bumps their versions, moves
+ * the job between statuses and the per-status job counters of the run and
+ * derives the run status from those counters. Callers must run within a
+ * transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobEventApplier {
+
+    private static final Set<JobStatus> FINISHED_JOB_STATUSES =
+            EnumSet.of(JobStatus.FINISHED, JobStatus.FAILED, JobStatus.ERRORED);
+
+    private static final Set<RunStatus> FINISHED_RUN_STATUSES =
+            EnumSet.of(RunStatus.FINISHED, RunStatus.FAILED, RunStatus.ERRORED);
+
+    private final RunRepository runRepository;
+
+    private final JobRepository jobRepository;
+
+    private final DispatchOutboxRepository dispatchOutboxRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Applies the events to job and run and returns the new job version,
+     * which is also the version the events are stored with.
+     *
+     * <p>The run is bumped (and so locked) first and its new version is the
+     * floor of the job version. Writers of jobs of a run are thus serialized
+     * and a job never gets a version lower than a run version a client could
+     * have seen before, which run deltas rely on.</p>
+     */
+    public Long applyEvents(Job job, List<JobEventCreateDTO> reqDtos) throws NotFoundException {
+        final UUID runUuid = job.getRun().getUuid();
+        final Timestamp now = now();
+        final Long runVersion = runRepository
+                .bumpVersion(runUuid, now.getTime(), now)
+                .orElseThrow(() -> new NotFoundException(RunService.ENTITY_NAME, runUuid));
+        final List<JobEventCreateDTO> statusEvents = reqDtos.stream()
+                .filter(reqDto -> reqDto.getResultStatus() != null)
+                .toList();
+        if (statusEvents.isEmpty()) {
+            return jobRepository
+                    .bumpVersion(job.getUuid(), reqDtos.get(0).getRemoteId(), runVersion, now)
+                    .orElseThrow(() -> new NotFoundException(JobService.ENTITY_NAME, job.getUuid()));
+        }
+        Long jobVersion = runVersion;
+        for (JobEventCreateDTO reqDto : statusEvents) {
+            jobVersion = applyStatus(job, reqDto, runVersion, now);
+        }
+        return jobVersion;
+    }
+
+    /**
+     * Moves a queued job to the given status and returns its new version,
+     * or {@code null} if the job is no longer queued.
+     */
+    public Long applyDispatchStatus(Job job, JobStatus status, Timestamp now) throws NotFoundException {
+        final UUID runUuid = job.getRun().getUuid();
+        final Long runVersion = runRepository
+                .bumpVersion(runUuid, now.getTime(), now)
+                .orElseThrow(() -> new NotFoundException(RunService.ENTITY_NAME, runUuid));
+        final JobRepository.StatusUpdate jobUpdate = jobRepository
+                .updateStatusIfQueued(
+                        job.getUuid(),
+                        status.name(),
+                        FINISHED_JOB_STATUSES.contains(status),
+                        now,
+                        runVersion,
+                        now
+                )
+                .orElse(null);
+        if (jobUpdate == null) {
+            return null;
+        }
+        return applyTransition(job, status, now, jobUpdate, now);
+    }
+
+    private Long applyStatus(
+            Job job, JobEventCreateDTO reqDto, Long runVersion, Timestamp now
+    ) throws NotFoundException {
+        final Timestamp occurredAt = Timestamp.from(reqDto.getOccurredAt());
+        final JobStatus status = reqDto.getResultStatus();
+        final JobRepository.StatusUpdate jobUpdate = jobRepository
+                .updateStatus(
+                        job.getUuid(),
+                        status.name(),
+                        FINISHED_JOB_STATUSES.contains(status),
+                        occurredAt,
+                        reqDto.getRemoteId(),
+                        runVersion,
+                        now
+                )
+                .orElseThrow(() -> new NotFoundException(JobService.ENTITY_NAME, job.getUuid()));
+        return applyTransition(job, status, occurredAt, jobUpdate, now);
+    }
+
+    private Long applyTransition(
+            Job job,
+            JobStatus status,
+            Timestamp occurredAt,
+            JobRepository.StatusUpdate jobUpdate,
+            Timestamp now
+    ) throws NotFoundException {
+        if (Boolean.TRUE.equals(jobUpdate.getBecameFinished())) {
+            releaseStationSlot(job);
+        }
+        final UUID runUuid = job.getRun().getUuid();
+        final RunRepository.JobCounters counters = runRepository
+                .applyJobTransition(runUuid, jobUpdate.getPreviousStatus(), status.name(), now)
+                .orElseThrow(() -> new NotFoundException(RunService.ENTITY_NAME, runUuid));
+        final RunStatus current = RunStatus.valueOf(counters.getStatus());
+        final RunStatus next = getNextRunStatus(counters, current);
+        final boolean finished = FINISHED_RUN_STATUSES.contains(next);
+        final boolean becameFinished = finished && counters.getFinishedAt() == null;
+        if (next != current || becameFinished) {
+            runRepository.updateStatus(runUuid, next.name(), finished, occurredAt);
+        }
+        if (becameFinished) {
+            applicationEventPublisher.publishEvent(new RunDispatchRequest(this, runUuid, null));
+        }
+        return jobUpdate.getVersion();
+    }
+
+    private void releaseStationSlot(Job job) {
+        if (job.getTarget() != null) {
+            dispatchOutboxRepository.releaseThrottled(job.getTarget().getStation().getUuid(), now());
+        }
+    }
+
+    private RunStatus getNextRunStatus(RunRepository.JobCounters counters, RunStatus current) {
+        final int total = counters.getJobsPrepared() + counters.getJobsQueued()
+                + counters.getJobsRunning() + counters.getJobsFinished()
+                + counters.getJobsAborting() + counters.getJobsAborted()
+                + counters.getJobsErrored() + counters.getJobsFailed();
+        if (counters.getJobsRunning() > 0) {
+            return RunStatus.RUNNING;
+        }
+        if (counters.getJobsAborting() > 0) {
+            return RunStatus.ABORTING;
+        }
+        if (counters.getJobsErrored() == total) {
+            return RunStatus.ERRORED;
+        }
+        if (counters.getJobsFinished() == total) {
+            return RunStatus.FINISHED;
+        }
+        if (counters.getJobsFailed() > 0) {
+            return RunStatus.FAILED;
+        }
+        return current;
+    }
+}
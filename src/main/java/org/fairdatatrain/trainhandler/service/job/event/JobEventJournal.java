@@ -0,0 +1,270 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.job.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.data.model.JobEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+/**
+ * Write-behind journal of job events without a status change. Events are
+ * appended to the current journal segment and acknowledged once forced to
+ * disk; concurrent appends share a single force (group commit with a short
+ * linger of the leading appender). Segments are periodically sealed and
+ * handed to the {@link JobEventJournalFlusher}. Segments left over from a
+ * previous process are replayed on the first flush after start.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobEventJournal {
+
+    private static final String SEGMENT_PREFIX = "events-";
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final byte NEWLINE = '\n';
+
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    private final DispatcherConfig config;
+
+    private final ObjectMapper objectMapper;
+
+    private final JobEventJournalFlusher jobEventJournalFlusher;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong durable = new AtomicLong();
+
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    private Path directory;
+
+    private long sequence;
+
+    private Path segmentPath;
+
+    private FileChannel segment;
+
+    private long segmentEntries;
+
+    private long appended;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Path.of(config.getJournal().getDirectory());
+        meterRegistry.gauge("trainhandler.journal.pending", pending);
+        if (Files.isDirectory(directory)) {
+            for (Path segmentFile : sealedSegments()) {
+                sequence = Math.max(sequence, sequenceOf(segmentFile));
+                pending.addAndGet(jobEventJournalFlusher.countEntries(segmentFile));
+            }
+        }
+        if (pending.get() > 0) {
+            log.info(format("Found %s journaled job event(s) to replay", pending.get()));
+        }
+        if (config.getJournal().getEnabled()) {
+            Files.createDirectories(directory);
+            openSegment();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        if (segment != null) {
+            closeSegment();
+            segment = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.getJournal().getEnabled();
+    }
+
+    public boolean tryAppend(UUID runUuid, JobEvent jobEvent) {
+        try {
+            final byte[] line = objectMapper.writeValueAsBytes(JournalEntry.of(runUuid, jobEvent));
+            final ByteBuffer buffer = ByteBuffer.allocate(line.length + 1).put(line).put(NEWLINE).flip();
+            final long ticket = write(buffer);
+            return ticket > 0 && awaitDurable(ticket);
+        }
+        catch (IOException exception) {
+            log.warn(format("Journaling job event failed: %s", exception.getMessage()));
+            return false;
+        }
+    }
+
+    private synchronized long write(ByteBuffer buffer) throws IOException {
+        if (segment == null) {
+            return 0;
+        }
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        segmentEntries++;
+        pending.incrementAndGet();
+        return ++appended;
+    }
+
+    private boolean awaitDurable(long ticket) throws IOException {
+        // the first appender becomes the leader and forces everything written so far,
+        // appenders queued behind it find their entry already durable
+        forceLock.lock();
+        try {
+            if (durable.get() >= ticket) {
+                return true;
+            }
+            linger();
+            final FileChannel channel;
+            final long target;
+            synchronized (this) {
+                channel = segment;
+                target = appended;
+            }
+            if (channel == null) {
+                return durable.get() >= ticket;
+            }
+            try {
+                channel.force(false);
+            }
+            catch (ClosedChannelException exception) {
+                // sealed (and forced) by a concurrent rotation
+                return durable.get() >= ticket;
+            }
+            durable.accumulateAndGet(target, Math::max);
+            return true;
+        }
+        finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void linger() {
+        final Duration linger = config.getJournal().getGroupCommitLinger();
+        if (linger.isZero() || linger.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(linger.toMillis(), linger.toNanosPart() % NANOS_PER_MILLI);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${dispatcher.journal.flushInterval:PT0.5S}",
+            fixedDelayString = "${dispatcher.journal.flushInterval:PT0.5S}"
+    )
+    public void flush() {
+        try {
+            rotate();
+            for (Path segmentFile : sealedSegments()) {
+                pending.addAndGet(-jobEventJournalFlusher.persistSegment(segmentFile));
+            }
+        }
+        catch (Exception exception) {
+            log.warn(format("Flushing job event journal failed: %s", exception.getMessage()));
+        }
+    }
+
+    private synchronized void rotate() throws IOException {
+        if (segment != null && segmentEntries > 0) {
+            closeSegment();
+            openSegment();
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        segment.force(false);
+        durable.accumulateAndGet(appended, Math::max);
+        segment.close();
+    }
+
+    private synchronized Path currentSegment() {
+        return segmentPath;
+    }
+
+    private void openSegment() throws IOException {
+        sequence++;
+        segmentPath = directory.resolve(format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        segment = FileChannel.open(
+                segmentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+        );
+        segmentEntries = 0;
+    }
+
+    private List<Path> sealedSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        final Path current = currentSegment();
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .filter(file -> !file.equals(current))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        final String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(
+                    name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())
+            );
+        }
+        catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.job.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.data.repository.JobEventRepository;
+import org.fairdatatrain.trainhandler.data.repository.JobRepository;
+import org.fairdatatrain.trainhandler.data.repository.RunRepository;
+import org.fairdatatrain.trainhandler.data.repository.VersionBump;
+import org.fairdatatrain.trainhandler.service.async.NotificationCoalescer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
+
+/**
+ * Moves sealed segments of the {@link JobEventJournal} into the database:
+ * their events are inserted in JDBC batches together with a new version of
+ * their jobs and runs (events carry the job version of the flush), pollers
+ * are notified and the segment file is deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobEventJournalFlusher {
+
+    private final DispatcherConfig config;
+
+    private final ObjectMapper objectMapper;
+
+    private final JobEventRepository jobEventRepository;
+
+    private final JobRepository jobRepository;
+
+    private final RunRepository runRepository;
+
+    private final NotificationCoalescer notificationCoalescer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        flushTimer = meterRegistry.timer("trainhandler.journal.flush");
+    }
+
+    public int countEntries(Path segmentFile) throws IOException {
+        return readLines(segmentFile).size();
+    }
+
+    /**
+     * Persists the entries of a sealed segment and deletes it. Returns the
+     * number of entries the segment held.
+     */
+    public int persistSegment(Path segmentFile) throws IOException {
+        final List<String> lines = readLines(segmentFile);
+        final List<JournalEntry> entries = lines.stream().map(this::parse).filter(Objects::nonNull).toList();
+        final int batchSize = config.getJournal().getBatchSize();
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            persist(entries.subList(from, Math.min(entries.size(), from + batchSize)));
+        }
+        Files.delete(segmentFile);
+        return lines.size();
+    }
+
+    private void persist(List<JournalEntry> entries) {
+        final Map<UUID, UUID> jobRuns = new LinkedHashMap<>();
+        entries.forEach(entry -> jobRuns.put(entry.jobUuid(), entry.runUuid()));
+        flushTimer.record(() -> {
+            transactionTemplate.executeWithoutResult(transaction -> insert(entries, jobRuns));
+        });
+        jobRuns.forEach((jobUuid, runUuid) -> notificationCoalescer.submit(runUuid, jobUuid));
+    }
+
+    private void insert(List<JournalEntry> entries, Map<UUID, UUID> jobRuns) {
+        final Timestamp now = now();
+        // runs first (in a fixed order), their newest version is the floor of the job versions
+        final long runVersion = runRepository
+                .bumpVersions(new HashSet<>(jobRuns.values()), now.getTime(), now)
+                .stream()
+                .mapToLong(VersionBump::getVersion)
+                .max()
+                .orElse(now.getTime());
+        final Map<UUID, Long> jobVersions = new HashMap<>();
+        jobRepository.bumpVersions(jobRuns.keySet(), runVersion, now).forEach(bump -> {
+            jobVersions.put(UUID.fromString(bump.getUuid()), bump.getVersion());
+        });
+        // events get the version of this flush, not of their append, so delta pollers
+        // that already saw a newer job version still receive them
+        jobEventRepository.insertAll(entries.stream()
+                .filter(entry -> jobVersions.containsKey(entry.jobUuid()))
+                .map(entry -> entry.toJobEvent(jobVersions.get(entry.jobUuid())))
+                .toList());
+    }
+
+    private JournalEntry parse(String line) {
+        try {
+            return objectMapper.readValue(line, JournalEntry.class);
+        }
+        catch (JsonProcessingException exception) {
+            log.warn(format("Skipping unreadable job event journal entry: %s", exception.getMessage()));
+            return null;
+        }
+    }
+
+    private static List<String> readLines(Path path) throws IOException {
+        try (Stream<String> lines = Files.lines(path)) {
+            return lines.filter(line -> !line.isBlank()).toList();
+        }
+    }
+}
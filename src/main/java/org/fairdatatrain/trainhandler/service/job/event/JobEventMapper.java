@@ -44,6 +44,7 @@ public class JobEventMapper {
                 .createdAt(jobEvent.getCreatedAt().toInstant().toString())
                 .updatedAt(jobEvent.getUpdatedAt().toInstant().toString())
                 .occurredAt(jobEvent.getOccurredAt().toInstant().toString())
+                .version(jobEvent.getVersion())
                 .build();
     }
 
@@ -24,32 +24,26 @@ package org.fairdatatrain.trainhandler.service.job.event;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.fairdatatrain.trainhandler.api.dto.job.JobDTO;
 import org.fairdatatrain.trainhandler.api.dto.job.JobEventCreateDTO;
 import org.fairdatatrain.trainhandler.api.dto.job.JobEventDTO;
-import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
 import org.fairdatatrain.trainhandler.data.model.Job;
 import org.fairdatatrain.trainhandler.data.model.JobEvent;
-import org.fairdatatrain.trainhandler.data.model.Run;
 import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
-import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
 import org.fairdatatrain.trainhandler.data.repository.JobEventRepository;
-import org.fairdatatrain.trainhandler.data.repository.JobRepository;
-import org.fairdatatrain.trainhandler.data.repository.RunRepository;
 import org.fairdatatrain.trainhandler.exception.JobSecurityException;
 import org.fairdatatrain.trainhandler.exception.NotFoundException;
-import org.fairdatatrain.trainhandler.service.async.AsyncEventPublisher;
-import org.fairdatatrain.trainhandler.service.job.JobMapper;
+import org.fairdatatrain.trainhandler.service.async.NotificationCoalescer;
 import org.fairdatatrain.trainhandler.service.job.JobService;
-import org.fairdatatrain.trainhandler.service.run.RunMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
+import javax.validation.ValidationException;
 import java.sql.Timestamp;
 import java.util.*;
 
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -57,13 +51,7 @@ public class JobEventService {
 
     public static final String ENTITY_NAME = "JobEvent";
 
-    private final RunRepository runRepository;
-
-    private final JobRepository jobRepository;
-
-    private final JobMapper jobMapper;
-
-    private final RunMapper runMapper;
+    public static final int DEFAULT_PAGE_SIZE = 100;
 
     private final JobService jobService;
 
@@ -71,10 +59,11 @@ public class JobEventService {
 
     private final JobEventMapper jobEventMapper;
 
-    private final AsyncEventPublisher asyncEventPublisher;
+    private final NotificationCoalescer notificationCoalescer;
+
+    private final JobEventJournal jobEventJournal;
 
-    @PersistenceContext
-    private final EntityManager entityManager;
+    private final JobEventApplier jobEventApplier;
 
     public JobEvent getByIdOrThrow(UUID uuid) throws NotFoundException {
         return jobEventRepository
@@ -82,90 +71,147 @@ public class JobEventService {
                 .orElseThrow(() -> new NotFoundException(ENTITY_NAME, uuid));
     }
 
-    public List<JobEventDTO> getEvents(UUID runUuid, UUID jobUuid) throws NotFoundException {
+    /**
+     * Lists events of a job ordered by (occurredAt, uuid).
+     *
+     * <p>Without paging parameters all events are returned. With {@code after}
+     * (UUID of the last event already seen) the events following it are
+     * returned, with {@code tail} the last ones; both return at most
+     * {@code limit} events (default {@value #DEFAULT_PAGE_SIZE}).</p>
+     */
+    public List<JobEventDTO> getEvents(
+            UUID runUuid, UUID jobUuid, UUID after, Integer limit, boolean tail
+    ) throws NotFoundException {
         final Job job = jobService.getByIdOrThrow(jobUuid);
         if (!job.getRun().getUuid().equals(runUuid)) {
             throw new NotFoundException(JobService.ENTITY_NAME, jobUuid);
         }
-        return jobEventRepository
-                .findAllByJobOrderByOccurredAtAsc(job)
-                .parallelStream()
-                .map(jobEventMapper::toDTO)
-                .toList();
+        if (after != null && tail) {
+            throw new ValidationException("Parameters 'after' and 'tail' cannot be combined");
+        }
+        final int pageSize = Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE);
+        final List<JobEvent> jobEvents;
+        if (tail) {
+            jobEvents = new ArrayList<>(jobEventRepository.findAllByJobOrderByOccurredAtDescUuidDesc(
+                    job, PageRequest.of(0, pageSize)
+            ));
+            Collections.reverse(jobEvents);
+        }
+        else if (after != null) {
+            final JobEvent cursor = getByIdOrThrow(after);
+            if (!cursor.getJob().getUuid().equals(jobUuid)) {
+                throw new NotFoundException(ENTITY_NAME, after);
+            }
+            jobEvents = jobEventRepository.findPageAfter(
+                    jobUuid, cursor.getOccurredAt(), cursor.getUuid(), pageSize
+            );
+        }
+        else if (limit != null) {
+            jobEvents = jobEventRepository.findAllByJobOrderByOccurredAtAscUuidAsc(
+                    job, PageRequest.of(0, pageSize)
+            );
+        }
+        else {
+            jobEvents = jobEventRepository.findAllByJobOrderByOccurredAtAscUuidAsc(job);
+        }
+        return jobEvents.stream().map(jobEventMapper::toDTO).toList();
     }
 
+    /**
+     * Stores a job event reported by a station and updates job and run.
+     *
+     * <p>Job and run are never written through the persistence context here;
+     * each is changed by UPDATEs that bump its version. A status
+     * change moves the job between the per-status job counters of the run,
+     * and the run status is derived from the returned counters. The run row
+     * is locked first, so concurrent transitions of jobs of the same run are
+     * serialized and always see each other's counts.</p>
+     */
     @Transactional
     public JobEventDTO createEvent(
             UUID runUuid, UUID jobUuid, JobEventCreateDTO reqDto
     ) throws NotFoundException, JobSecurityException {
-        final Job job = jobService.getByIdOrThrow(jobUuid);
-        final Run run = job.getRun();
-        if (!run.getUuid().equals(runUuid)) {
-            throw new NotFoundException(JobService.ENTITY_NAME, jobUuid);
-        }
-        if (!Objects.equals(job.getSecret(), reqDto.getSecret())) {
-            throw new JobSecurityException("Incorrect secret for creating job event");
-        }
-        if (job.getRemoteId() == null) {
-            job.setRemoteId(reqDto.getRemoteId());
-        }
-        else if (!Objects.equals(job.getRemoteId(), reqDto.getRemoteId())) {
-            throw new JobSecurityException("Incorrect remote ID for creating job event");
-        }
-        if (reqDto.getResultStatus() != null) {
-            job.setStatus(reqDto.getResultStatus());
-            if (job.getFinishedAt() == null && job.isFinished()) {
-                job.setFinishedAt(Timestamp.from(reqDto.getOccurredAt()));
-            }
-            run.setStatus(getNextRunStatus(job, reqDto));
-            if (run.getFinishedAt() == null && run.isFinished()) {
-                run.setFinishedAt(Timestamp.from(reqDto.getOccurredAt()));
-            }
+        final Job job = getCallbackJob(runUuid, jobUuid, reqDto);
+        final JobEvent jobEvent = jobEventMapper.fromCreateDTO(reqDto, job);
+        if (reqDto.getResultStatus() == null
+                && job.getRemoteId() != null
+                && jobEventJournal.isEnabled()
+                && jobEventJournal.tryAppend(runUuid, jobEvent)) {
+            return jobEventMapper.toDTO(jobEvent);
         }
-        final JobEvent jobEvent = jobEventRepository.saveAndFlush(
-                jobEventMapper.fromCreateDTO(reqDto, job)
-        );
-        job.setVersion(jobEvent.getUpdatedAt().toInstant().toEpochMilli());
-        jobRepository.saveAndFlush(job);
-        job.getRun().setVersion(job.getVersion());
-        runRepository.saveAndFlush(run);
-        entityManager.flush();
-        entityManager.refresh(jobEvent);
+        jobEvent.setVersion(jobEventApplier.applyEvents(job, List.of(reqDto)));
+        jobEventRepository.insertAll(List.of(jobEvent));
         return jobEventMapper.toDTO(jobEvent);
     }
 
     @Transactional
-    public void notify(UUID jobUuid) throws NotFoundException {
-        final Job job = jobService.getByIdOrThrow(jobUuid);
-        final JobDTO jobDto = jobMapper.toDTO(job);
-        final RunDTO runDto = runMapper.toDTO(job.getRun());
-        asyncEventPublisher.publishNewJobEventNotification(runDto, jobDto);
-    }
-
-    private RunStatus getNextRunStatus(Job job, JobEventCreateDTO reqDto) {
-        final List<JobStatus> jobStatuses = job.getRun().getJobs().stream().map(job1 -> {
-            if (job1.getUuid() == job.getUuid()) {
-                return reqDto.getResultStatus();
-            }
-            else {
-                return job.getStatus();
+    public List<JobEventDTO> createEvents(
+            UUID runUuid, UUID jobUuid, List<JobEventCreateDTO> reqDtos
+    ) throws NotFoundException, JobSecurityException {
+        final JobEventCreateDTO first = reqDtos.get(0);
+        final Job job = getCallbackJob(runUuid, jobUuid, first);
+        for (JobEventCreateDTO reqDto : reqDtos) {
+            if (!Objects.equals(first.getSecret(), reqDto.getSecret())
+                    || !Objects.equals(first.getRemoteId(), reqDto.getRemoteId())) {
+                throw new JobSecurityException(
+                        "All job events in a batch must have the same secret and remote ID"
+                );
             }
-        }).toList();
-        if (jobStatuses.stream().anyMatch(JobStatus.RUNNING::equals)) {
-            return RunStatus.RUNNING;
         }
-        if (jobStatuses.stream().anyMatch(JobStatus.ABORTING::equals)) {
-            return RunStatus.ABORTING;
+        final List<JobEvent> jobEvents = reqDtos.stream()
+                .map(reqDto -> jobEventMapper.fromCreateDTO(reqDto, job))
+                .toList();
+        final Long version = jobEventApplier.applyEvents(job, reqDtos);
+        jobEvents.forEach(jobEvent -> jobEvent.setVersion(version));
+        jobEventRepository.insertAll(jobEvents);
+        return jobEvents.stream().map(jobEventMapper::toDTO).toList();
+    }
+
+    /**
+     * Records the outcome of dispatching a job on behalf of the train handler.
+     *
+     * <p>The status is applied only while the job is still queued: a station
+     * callback that got in first (and possibly already finished the job) is
+     * never overridden. Returns whether the status was applied.</p>
+     */
+    @Transactional
+    public boolean createDispatchEvent(Job job, JobStatus status, String message) throws NotFoundException {
+        final Timestamp now = now();
+        final Long version = jobEventApplier.applyDispatchStatus(job, status, now);
+        if (version == null) {
+            return false;
         }
-        if (jobStatuses.stream().allMatch(JobStatus.ERRORED::equals)) {
-            return RunStatus.ERRORED;
+        final JobEvent jobEvent = jobEventMapper.fromCreateDTO(
+                JobEventCreateDTO.builder()
+                        .message(message)
+                        .occurredAt(now.toInstant())
+                        .resultStatus(status)
+                        .secret(job.getSecret())
+                        .build(),
+                job
+        );
+        jobEvent.setVersion(version);
+        jobEventRepository.insertAll(List.of(jobEvent));
+        return true;
+    }
+
+    public void notify(UUID runUuid, UUID jobUuid) {
+        notificationCoalescer.submit(runUuid, jobUuid);
+    }
+
+    private Job getCallbackJob(
+            UUID runUuid, UUID jobUuid, JobEventCreateDTO reqDto
+    ) throws NotFoundException, JobSecurityException {
+        final Job job = jobService.getByIdOrThrow(jobUuid);
+        if (!job.getRun().getUuid().equals(runUuid)) {
+            throw new NotFoundException(JobService.ENTITY_NAME, jobUuid);
         }
-        if (jobStatuses.stream().allMatch(JobStatus.FINISHED::equals)) {
-            return RunStatus.FINISHED;
+        if (!Objects.equals(job.getSecret(), reqDto.getSecret())) {
+            throw new JobSecurityException("Incorrect secret for creating job event");
         }
-        if (jobStatuses.stream().anyMatch(JobStatus.FAILED::equals)) {
-            return RunStatus.FAILED;
+        if (job.getRemoteId() != null && !Objects.equals(job.getRemoteId(), reqDto.getRemoteId())) {
+            throw new JobSecurityException("Incorrect remote ID for creating job event");
         }
-        return job.getRun().getStatus();
+        return job;
     }
 }
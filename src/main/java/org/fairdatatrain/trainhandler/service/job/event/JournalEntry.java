@@ -0,0 +1,62 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.job.event;
+
+import org.fairdatatrain.trainhandler.data.model.Job;
+import org.fairdatatrain.trainhandler.data.model.JobEvent;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Line of a job event journal segment.
+ */
+record JournalEntry(
+        UUID uuid, UUID runUuid, UUID jobUuid, String message, Instant occurredAt, Instant createdAt
+) {
+
+    static JournalEntry of(UUID runUuid, JobEvent jobEvent) {
+        return new JournalEntry(
+                jobEvent.getUuid(),
+                runUuid,
+                jobEvent.getJob().getUuid(),
+                jobEvent.getMessage(),
+                jobEvent.getOccurredAt().toInstant(),
+                jobEvent.getCreatedAt().toInstant()
+        );
+    }
+
+    JobEvent toJobEvent(Long version) {
+        final Timestamp created = Timestamp.from(createdAt);
+        return JobEvent.builder()
+                .uuid(uuid)
+                .message(message)
+                .occurredAt(Timestamp.from(occurredAt))
+                .version(version)
+                .job(Job.builder().uuid(jobUuid).build())
+                .createdAt(created)
+                .updatedAt(created)
+                .build();
+    }
+}
@@ -63,6 +63,7 @@ public class PlanMapper {
                                 .toList()
                 )
                 .publishArtifacts(plan.getPublishArtifacts())
+                .priority(plan.getPriority())
                 .createdAt(plan.getCreatedAt().toInstant().toString())
                 .updatedAt(plan.getUpdatedAt().toInstant().toString())
                 .build();
@@ -82,6 +83,7 @@ public class PlanMapper {
                                 .toList()
                 )
                 .publishArtifacts(plan.getPublishArtifacts())
+                .priority(plan.getPriority())
                 .build();
     }
 
@@ -94,6 +96,7 @@ public class PlanMapper {
                 .train(train)
                 .targets(Collections.emptyList())
                 .publishArtifacts(reqDto.getPublishArtifacts())
+                .priority(reqDto.getPriority())
                 .createdAt(now)
                 .updatedAt(now)
                 .build();
@@ -106,6 +109,9 @@ public class PlanMapper {
         plan.setNote(reqDto.getNote());
         plan.setUpdatedAt(now);
         plan.setPublishArtifacts(reqDto.getPublishArtifacts());
+        if (reqDto.getPriority() != null) {
+            plan.setPriority(reqDto.getPriority());
+        }
         return plan;
     }
 
@@ -0,0 +1,129 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.run;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
+import org.fairdatatrain.trainhandler.data.repository.RunRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
+
+/**
+ * Triggers dispatch as soon as a run becomes due: new runs right after their
+ * creation is committed, scheduled runs precisely at their start time. The
+ * delay queue lives in memory and is rebuilt from the database on startup;
+ * the periodic scan of {@link RunDispatcher} remains as a safety net.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunDispatchScheduler {
+
+    private final RunDispatcher runDispatcher;
+
+    private final RunRepository runRepository;
+
+    private final DelayQueue<DueRun> queue = new DelayQueue<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "run-dispatch-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        runRepository
+                .findAllByStatusAndShouldStartAtAfter(RunStatus.SCHEDULED, now())
+                .forEach(run -> schedule(run.getUuid(), run.getShouldStartAt().toInstant()));
+        log.info(format("Restored %s scheduled run(s) for dispatch", queue.size()));
+        running.set(true);
+        executor.submit(this::loop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running.set(false);
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleRunDispatchRequest(RunDispatchRequest request) {
+        schedule(request.getRunUuid(), request.getShouldStartAt());
+    }
+
+    public void schedule(UUID runUuid, Instant startAt) {
+        log.debug(format("Run %s scheduled for dispatch at %s", runUuid, startAt));
+        queue.put(new DueRun(runUuid, startAt == null ? Instant.now() : startAt));
+    }
+
+    private void loop() {
+        while (running.get()) {
+            try {
+                final List<DueRun> dueRuns = new ArrayList<>();
+                dueRuns.add(queue.take());
+                queue.drainTo(dueRuns);
+                log.debug(format("Dispatch triggered by %s due run(s)", dueRuns.size()));
+                runDispatcher.dispatchScheduledRuns();
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                running.set(false);
+            }
+            catch (Exception exception) {
+                log.warn(format("Triggered dispatch failed: %s", exception.getMessage()));
+            }
+        }
+    }
+
+    private record DueRun(UUID runUuid, Instant startAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), startAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
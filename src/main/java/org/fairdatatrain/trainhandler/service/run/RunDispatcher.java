@@ -23,26 +23,24 @@
 package org.fairdatatrain.trainhandler.service.run;
 
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.fairdatatrain.trainhandler.api.dto.job.JobEventCreateDTO;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.data.model.DispatchOutboxEntry;
 import org.fairdatatrain.trainhandler.data.model.Job;
 import org.fairdatatrain.trainhandler.data.model.Run;
 import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
 import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
+import org.fairdatatrain.trainhandler.data.repository.DispatchOutboxRepository;
 import org.fairdatatrain.trainhandler.data.repository.JobRepository;
 import org.fairdatatrain.trainhandler.data.repository.RunRepository;
-import org.fairdatatrain.trainhandler.service.dispatch.DispatchService;
+import org.fairdatatrain.trainhandler.service.dispatch.DispatchOutboxWorker;
 import org.fairdatatrain.trainhandler.service.job.event.JobEventService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.Instant;
-import java.util.HashSet;
-import java.util.Set;
+import java.sql.Timestamp;
+import java.util.List;
 import java.util.UUID;
 
 import static java.lang.String.format;
@@ -53,7 +51,9 @@ import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
 @RequiredArgsConstructor
 public class RunDispatcher {
 
-    private final DispatchService dispatchService;
+    private final DispatchOutboxWorker dispatchOutboxWorker;
+
+    private final DispatchOutboxRepository dispatchOutboxRepository;
 
     private final JobRepository jobRepository;
 
@@ -61,82 +61,90 @@ public class RunDispatcher {
 
     private final JobEventService jobEventService;
 
+    private final DispatcherConfig config;
+
+    private final TransactionTemplate transactionTemplate;
+
     @Scheduled(
             initialDelayString = "${dispatcher.dispatch.initDelay:PT1M}",
             fixedRateString = "${dispatcher.dispatch.interval:PT1M}"
     )
     public void dispatchScheduledRuns() {
         log.debug("Dispatching scheduled runs");
-        final Set<UUID> dispatchedRuns = new HashSet<>();
-        boolean dispatching = true;
-        while (dispatching) {
-            final UUID dispatchedRun = tryDispatchRun();
-            dispatching = dispatchedRun != null && !dispatchedRuns.contains(dispatchedRun);
-            if (dispatching) {
-                dispatchedRuns.add(dispatchedRun);
-                log.debug("Dispatched run: " + dispatchedRun);
-            }
-            else {
-                log.debug("No more runs to be dispatched now");
-            }
+        final int batchSize = config.getDispatch().getBatchSize();
+        int limit;
+        int claimed;
+        do {
+            limit = Math.min(batchSize, availableRunSlots());
+            claimed = limit > 0 ? tryDispatchRuns(limit) : 0;
+        } while (limit > 0 && claimed == limit);
+        log.debug("No more runs to be dispatched now");
+    }
+
+    private int availableRunSlots() {
+        final int budget = config.getDispatch().getMaxRunningRuns();
+        if (budget <= 0) {
+            return config.getDispatch().getBatchSize();
         }
+        return (int) Math.max(0, budget - runRepository.countByStatusIn(RunQueue.ACTIVE_STATUSES));
     }
 
-    public UUID tryDispatchRun() {
-        final Page<Run> runs = runRepository.findRunToDispatch(
-                now(),
-                Pageable.ofSize(1).withPage(0)
+    public int tryDispatchRuns(int batchSize) {
+        final Timestamp timestamp = now();
+        final List<Run> runs = runRepository.claimRunsToDispatch(
+                timestamp,
+                config.getCluster().getNodeId(),
+                Timestamp.from(timestamp.toInstant().plus(config.getDispatch().getLeaseDuration())),
+                batchSize
         );
-        if (runs.isEmpty()) {
-            return null;
-        }
-        final Run run = runs.getContent().get(0);
-        log.info("Run selected for dispatching: " + run.getUuid());
-        dispatchRun(run);
-        return run.getUuid();
+        runs.forEach(run -> {
+            log.info("Run selected for dispatching: " + run.getUuid());
+            try {
+                dispatchRun(run);
+            }
+            catch (Exception exception) {
+                log.warn(format("Failed to dispatch run %s: %s", run.getUuid(), exception.getMessage()));
+            }
+        });
+        return runs.size();
     }
 
-    @Transactional
     protected void dispatchRun(Run run) {
-        run.setStartedAt(now());
-        run.getJobs().forEach(job -> {
-            job.setStartedAt(now());
-            jobRepository.save(job);
+        transactionTemplate.executeWithoutResult(status -> {
+            startRun(run);
         });
+        run.getJobs().forEach(job -> jobEventService.notify(run.getUuid(), job.getUuid()));
+        dispatchOutboxWorker.drain();
+    }
+
+    private void startRun(Run run) {
+        final Timestamp startedAt = now();
+        final Long version = runRepository
+                .bumpVersion(run.getUuid(), startedAt.getTime(), startedAt)
+                .orElseThrow();
+        run.setStartedAt(startedAt);
+        run.getJobs().forEach(job -> queueJob(job, startedAt));
+        jobRepository.flush();
+        runRepository.recountJobs(run.getUuid());
         run.setStatus(RunStatus.RUNNING);
+        run.setLeaseOwner(null);
+        run.setLeaseExpiresAt(null);
         runRepository.save(run);
-        run.getJobs().forEach(job -> dispatchJob(run.getUuid(), job));
+        jobRepository.bumpVersions(
+                run.getJobs().stream().map(Job::getUuid).toList(), version, startedAt
+        );
     }
 
-    @SneakyThrows
-    protected void dispatchJob(UUID runUuid, Job job) {
-        try {
-            jobEventService.createEvent(
-                    runUuid,
-                    job.getUuid(),
-                    JobEventCreateDTO.builder()
-                            .message("Dispatching job from train handler")
-                            .occurredAt(Instant.now())
-                            .resultStatus(JobStatus.RUNNING)
-                            .secret(job.getSecret())
-                            .build()
-            );
-            jobEventService.notify(job.getUuid());
-            dispatchService.dispatch(job);
-        }
-        catch (Exception ex) {
-            log.warn(format("Failed to dispatch job %s: %s", job.getUuid(), ex.getMessage()));
-            jobEventService.createEvent(
-                    runUuid,
-                    job.getUuid(),
-                    JobEventCreateDTO.builder()
-                            .message(format("Dispatch failed: %s", ex.getMessage()))
-                            .occurredAt(Instant.now())
-                            .resultStatus(JobStatus.ERRORED)
-                            .secret(job.getSecret())
-                            .build()
-            );
-            jobEventService.notify(job.getUuid());
-        }
+    private void queueJob(Job job, Timestamp startedAt) {
+        job.setStartedAt(startedAt);
+        job.setStatus(JobStatus.QUEUED);
+        jobRepository.save(job);
+        dispatchOutboxRepository.save(DispatchOutboxEntry.builder()
+                .uuid(UUID.randomUUID())
+                .job(job)
+                .attempts(0)
+                .throttled(false)
+                .nextAttemptAt(startedAt)
+                .build());
     }
 }
@@ -26,8 +26,9 @@ import lombok.RequiredArgsConstructor;
 import org.fairdatatrain.trainhandler.api.dto.job.JobSimpleDTO;
 import org.fairdatatrain.trainhandler.api.dto.run.RunCreateDTO;
 import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDeltaDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunProgressDTO;
 import org.fairdatatrain.trainhandler.api.dto.run.RunSimpleDTO;
-import org.fairdatatrain.trainhandler.api.dto.run.RunUpdateDTO;
 import org.fairdatatrain.trainhandler.data.model.Plan;
 import org.fairdatatrain.trainhandler.data.model.Run;
 import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
@@ -55,6 +56,8 @@ public class RunMapper {
 
     private final JobMapper jobMapper;
 
+    private final RunQueue runQueue;
+
     public RunSimpleDTO toSimpleDTO(Run run) {
         return RunSimpleDTO.builder()
                 .uuid(run.getUuid())
@@ -63,6 +66,13 @@ public class RunMapper {
                 .status(run.getStatus())
                 .trainUuid(run.getPlan().getTrain().getUuid())
                 .planUuid(run.getPlan().getUuid())
+                .priority(run.getPriority())
+                .queuePosition(runQueue.getPosition(run))
+                .estimatedStartAt(
+                        Optional.ofNullable(runQueue.getEstimatedStart(run))
+                                .map(Instant::toString)
+                                .orElse(null))
+                .progress(toProgressDTO(run))
                 .shouldStartAt(
                         Optional.ofNullable(run.getShouldStartAt())
                                 .map(Timestamp::toInstant)
@@ -80,6 +90,29 @@ public class RunMapper {
                                 .orElse(null))
                 .createdAt(run.getCreatedAt().toInstant().toString())
                 .updatedAt(run.getUpdatedAt().toInstant().toString())
+                .version(run.getVersion())
+                .build();
+    }
+
+    public RunProgressDTO toProgressDTO(Run run) {
+        final int prepared = run.getJobsPrepared();
+        final int queued = run.getJobsQueued();
+        final int running = run.getJobsRunning();
+        final int finished = run.getJobsFinished();
+        final int aborting = run.getJobsAborting();
+        final int aborted = run.getJobsAborted();
+        final int errored = run.getJobsErrored();
+        final int failed = run.getJobsFailed();
+        return RunProgressDTO.builder()
+                .total(prepared + queued + running + finished + aborting + aborted + errored + failed)
+                .prepared(prepared)
+                .queued(queued)
+                .running(running)
+                .finished(finished)
+                .aborting(aborting)
+                .aborted(aborted)
+                .errored(errored)
+                .failed(failed)
                 .build();
     }
 
@@ -96,6 +129,7 @@ public class RunMapper {
                 .note(run.getNote())
                 .status(run.getStatus())
                 .plan(planMapper.toSimpleDTO(run.getPlan()))
+                .priority(run.getPriority())
                 .jobs(jobs)
                 .version(run.getVersion())
                 .shouldStartAt(
@@ -118,6 +152,45 @@ public class RunMapper {
                 .build();
     }
 
+    public RunDeltaDTO toDeltaDTO(Run run, Long since) {
+        final List<JobSimpleDTO> jobs = run
+                .getJobs()
+                .stream()
+                .filter(job -> job.getVersion() > since)
+                .map(jobMapper::toSimpleDTO)
+                .sorted(JOB_SIMPLE_CMP)
+                .toList();
+        return RunDeltaDTO.builder()
+                .uuid(run.getUuid())
+                .status(run.getStatus())
+                .startedAt(
+                        Optional.ofNullable(run.getStartedAt())
+                                .map(Timestamp::toInstant)
+                                .map(Instant::toString)
+                                .orElse(null))
+                .finishedAt(
+                        Optional.ofNullable(run.getFinishedAt())
+                                .map(Timestamp::toInstant)
+                                .map(Instant::toString)
+                                .orElse(null))
+                .jobs(jobs)
+                .since(since)
+                .version(run.getVersion())
+                .build();
+    }
+
+    public RunDeltaDTO toDeltaDTO(RunDTO run, Long since) {
+        return RunDeltaDTO.builder()
+                .uuid(run.getUuid())
+                .status(run.getStatus())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .jobs(run.getJobs().stream().filter(job -> job.getVersion() > since).toList())
+                .since(since)
+                .version(run.getVersion())
+                .build();
+    }
+
     public Run fromCreateDTO(RunCreateDTO reqDto, Plan plan) {
         final Timestamp now = now();
         final Long version = now.toInstant().toEpochMilli();
@@ -129,6 +202,7 @@ public class RunMapper {
                         ? RunStatus.PREPARED
                         : RunStatus.SCHEDULED)
                 .plan(plan)
+                .priority(Optional.ofNullable(reqDto.getPriority()).orElse(plan.getPriority()))
                 .shouldStartAt(
                         Optional.ofNullable(reqDto.getShouldStartAt())
                                 .map(Timestamp::from)
@@ -140,14 +214,4 @@ public class RunMapper {
                 .version(version)
                 .build();
     }
-
-    public Run fromUpdateDTO(RunUpdateDTO reqDto, Run run) {
-        final Timestamp now = now();
-        final Long version = now.toInstant().toEpochMilli();
-        run.setDisplayName(reqDto.getDisplayName());
-        run.setNote(reqDto.getNote());
-        run.setUpdatedAt(now);
-        run.setVersion(version);
-        return run;
-    }
 }
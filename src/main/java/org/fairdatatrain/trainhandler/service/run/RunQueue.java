@@ -0,0 +1,135 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.run;
+
+import lombok.RequiredArgsConstructor;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.data.model.Run;
+import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
+import org.fairdatatrain.trainhandler.data.repository.RunRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
+
+/**
+ * Position of waiting runs in the dispatch queue, in the fair-share order
+ * used by {@link RunDispatcher}, and their estimated start derived from
+ * the run budget and the average duration of recent runs. The queue is
+ * read at most once per {@code dispatcher.dispatch.queueInfoTtl}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RunQueue {
+
+    public static final List<RunStatus> ACTIVE_STATUSES = List.of(RunStatus.RUNNING, RunStatus.ABORTING);
+
+    private static final List<RunStatus> WAITING_STATUSES = List.of(RunStatus.SCHEDULED, RunStatus.PREPARED);
+
+    private final DispatcherConfig config;
+
+    private final RunRepository runRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public Integer getPosition(Run run) {
+        if (!isWaiting(run)) {
+            return null;
+        }
+        return getSnapshot().positions().get(run.getUuid());
+    }
+
+    public Instant getEstimatedStart(Run run) {
+        if (run.getStatus().equals(RunStatus.SCHEDULED)
+                && run.getShouldStartAt() != null
+                && run.getShouldStartAt().toInstant().isAfter(Instant.now())) {
+            return run.getShouldStartAt().toInstant();
+        }
+        if (!isWaiting(run)) {
+            return null;
+        }
+        final Snapshot current = getSnapshot();
+        final Integer position = current.positions().get(run.getUuid());
+        if (position == null) {
+            return null;
+        }
+        final int budget = config.getDispatch().getMaxRunningRuns();
+        if (budget <= 0) {
+            return current.takenAt();
+        }
+        final long free = Math.max(0, budget - current.running());
+        if (position <= free) {
+            return current.takenAt();
+        }
+        if (current.averageRun() == null) {
+            return null;
+        }
+        final long waves = (position - free + budget - 1) / budget;
+        return current.takenAt().plus(current.averageRun().multipliedBy(waves));
+    }
+
+    private boolean isWaiting(Run run) {
+        return run.getStartedAt() == null && WAITING_STATUSES.contains(run.getStatus());
+    }
+
+    private Snapshot getSnapshot() {
+        final Snapshot current = snapshot.get();
+        if (current != null
+                && current.takenAt().plus(config.getDispatch().getQueueInfoTtl()).isAfter(Instant.now())) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot.get() == current) {
+                snapshot.set(takeSnapshot());
+            }
+            return snapshot.get();
+        }
+    }
+
+    private Snapshot takeSnapshot() {
+        final Instant takenAt = Instant.now();
+        final Map<UUID, Integer> positions = new HashMap<>();
+        final List<String> queued = runRepository.findQueuedRunUuids(now());
+        for (int index = 0; index < queued.size(); index++) {
+            positions.put(UUID.fromString(queued.get(index)), index + 1);
+        }
+        final Double averageSeconds = runRepository.averageRecentRunSeconds();
+        final Duration averageRun = averageSeconds == null
+                ? null
+                : Duration.ofMillis(Math.round(averageSeconds * TimeUnit.SECONDS.toMillis(1)));
+        return new Snapshot(takenAt, positions, runRepository.countByStatusIn(ACTIVE_STATUSES), averageRun);
+    }
+
+    private record Snapshot(
+            Instant takenAt, Map<UUID, Integer> positions, long running, Duration averageRun
+    ) {
+    }
+}
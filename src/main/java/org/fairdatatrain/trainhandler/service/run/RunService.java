@@ -34,21 +34,21 @@ import org.fairdatatrain.trainhandler.data.model.Run;
 import org.fairdatatrain.trainhandler.data.repository.JobRepository;
 import org.fairdatatrain.trainhandler.data.repository.RunRepository;
 import org.fairdatatrain.trainhandler.exception.NotFoundException;
-import org.fairdatatrain.trainhandler.service.async.RunNotificationListener;
 import org.fairdatatrain.trainhandler.service.job.JobMapper;
 import org.fairdatatrain.trainhandler.service.plan.PlanService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-
-import static java.lang.String.format;
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
 
 @Service
 @RequiredArgsConstructor
@@ -67,7 +67,7 @@ public class RunService {
 
     private final JobRepository jobRepository;
 
-    private final RunNotificationListener runNotificationListener;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @PersistenceContext
     private final EntityManager entityManager;
@@ -97,9 +97,15 @@ public class RunService {
                 .map(target -> jobMapper.fromTarget(newRun, target))
                 .toList();
         jobRepository.saveAllAndFlush(jobs);
+        runRepository.recountJobs(newRun.getUuid());
         entityManager.flush();
         entityManager.refresh(newRun);
         newRun.getJobs().forEach(entityManager::refresh);
+        applicationEventPublisher.publishEvent(new RunDispatchRequest(
+                this,
+                newRun.getUuid(),
+                Optional.ofNullable(newRun.getShouldStartAt()).map(Timestamp::toInstant).orElse(null)
+        ));
         return runMapper.toDTO(newRun);
     }
 
@@ -107,24 +113,9 @@ public class RunService {
     public RunDTO update(UUID uuid, RunUpdateDTO reqDto) throws NotFoundException {
         // TODO: abort (?)
         final Run run = getByIdOrThrow(uuid);
-        final Run updatedRun =
-                runRepository.saveAndFlush(runMapper.fromUpdateDTO(reqDto, run));
-        return runMapper.toDTO(updatedRun);
-    }
-
-    @Transactional
-    public void poll(
-            UUID runUuid,
-            DeferredResult<RunDTO> result,
-            Long version,
-            RunDTO currentRun
-    ) {
-        log.info(format("REQUESTED VERSION: %s", version));
-        log.info(format("CURRENT VERSION: %s", currentRun.getVersion()));
-        if (version < currentRun.getVersion()) {
-            result.setResult(currentRun);
-        }
-        log.info("No run update at this point, enqueueing...");
-        runNotificationListener.enqueue(runUuid, version, result);
+        final Timestamp now = now();
+        runRepository.updateDetails(uuid, reqDto.getDisplayName(), reqDto.getNote(), now.getTime(), now);
+        entityManager.refresh(run);
+        return runMapper.toDTO(run);
     }
 }
@@ -0,0 +1,131 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.run;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.data.model.Run;
+import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
+import org.fairdatatrain.trainhandler.data.repository.RunRepository;
+import org.fairdatatrain.trainhandler.exception.NotFoundException;
+import org.fairdatatrain.trainhandler.service.async.JsonSnapshot;
+import org.fairdatatrain.trainhandler.service.async.PollMode;
+import org.fairdatatrain.trainhandler.service.async.RunNotificationListener;
+import org.fairdatatrain.trainhandler.service.async.SnapshotCache;
+import org.fairdatatrain.trainhandler.service.async.StreamNotificationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.lang.String.format;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RunWatchService {
+
+    private static final List<RunStatus> INACTIVE_STATUSES = List.of(
+            RunStatus.FINISHED, RunStatus.ABORTED, RunStatus.ERRORED, RunStatus.FAILED
+    );
+
+    private final RunService runService;
+
+    private final RunRepository runRepository;
+
+    private final RunMapper runMapper;
+
+    private final RunNotificationListener runNotificationListener;
+
+    private final StreamNotificationListener streamNotificationListener;
+
+    private final SnapshotCache snapshotCache;
+
+    private final DispatcherConfig dispatcherConfig;
+
+    public JsonSnapshot getSnapshot(UUID uuid, Long since, PollMode mode) throws NotFoundException {
+        final Run run = runService.getByIdOrThrow(uuid);
+        if (mode == PollMode.DELTA) {
+            return new JsonSnapshot(
+                    run.getVersion(),
+                    snapshotCache.get(uuid, run.getVersion(), since, () -> runMapper.toDeltaDTO(run, since))
+            );
+        }
+        return new JsonSnapshot(
+                run.getVersion(),
+                snapshotCache.get(uuid, run.getVersion(), () -> runMapper.toDTO(run))
+        );
+    }
+
+    @Transactional
+    public DeferredResult<byte[]> poll(UUID runUuid, Long version, boolean delta) throws NotFoundException {
+        final PollMode mode = delta ? PollMode.DELTA : PollMode.FULL;
+        final JsonSnapshot currentRun = getSnapshot(runUuid, version, mode);
+        final DeferredResult<byte[]> result = new DeferredResult<>(
+                dispatcherConfig.getPolling().getTimeoutMs(), currentRun.getJson()
+        );
+        log.info(format("REQUESTED VERSION: %s", version));
+        log.info(format("CURRENT VERSION: %s", currentRun.getVersion()));
+        if (version < currentRun.getVersion()) {
+            result.setResult(currentRun.getJson());
+        }
+        log.info("No run update at this point, enqueueing...");
+        runNotificationListener.enqueue(runUuid, version, mode, result);
+        return result;
+    }
+
+    @Transactional
+    public void pollBatch(UUID planUuid, Map<UUID, Long> versions, DeferredResult<byte[]> result) {
+        final Map<UUID, Run> runs = new LinkedHashMap<>();
+        runRepository
+                .findAllByPlanUuidAndStatusNotIn(planUuid, INACTIVE_STATUSES)
+                .forEach(run -> runs.put(run.getUuid(), run));
+        runRepository
+                .findAllById(versions.keySet())
+                .stream()
+                .filter(run -> run.getPlan().getUuid().equals(planUuid))
+                .forEach(run -> runs.putIfAbsent(run.getUuid(), run));
+        final List<byte[]> changed = runs.values().stream()
+                .filter(run -> run.getVersion() > versions.getOrDefault(run.getUuid(), 0L))
+                .map(run -> snapshotCache.get(run.getUuid(), run.getVersion(), () -> runMapper.toDTO(run)))
+                .toList();
+        if (!changed.isEmpty()) {
+            result.setResult(SnapshotCache.toJsonArray(changed));
+            return;
+        }
+        final Map<UUID, Long> watched = new LinkedHashMap<>();
+        runs.values().forEach(run -> watched.put(run.getUuid(), run.getVersion()));
+        runNotificationListener.enqueueBatch(watched, result);
+    }
+
+    public SseEmitter stream(UUID runUuid, Long version, RunDTO currentRun) {
+        return streamNotificationListener.subscribeRun(runUuid, version, currentRun);
+    }
+}
@@ -29,6 +29,7 @@ import org.fairdatatrain.trainhandler.api.dto.station.StationSimpleDTO;
 import org.fairdatatrain.trainhandler.api.dto.station.StationUpdateDTO;
 import org.fairdatatrain.trainhandler.data.model.Station;
 import org.fairdatatrain.trainhandler.data.model.TrainType;
+import org.fairdatatrain.trainhandler.data.model.enums.StationHealth;
 import org.fairdatatrain.trainhandler.data.model.enums.SyncItemStatus;
 import org.fairdatatrain.trainhandler.service.stationdirectory.StationDirectoryMapper;
 import org.fairdatatrain.trainhandler.service.traintype.TrainTypeMapper;
@@ -67,6 +68,16 @@ public class StationMapper {
                 .endpointDescription(station.getEndpointDescription())
                 .status(station.getStatus())
                 .softDeleted(station.getSoftDeleted())
+                .health(station.getHealth())
+                .lastLatencyMs(station.getLastLatencyMs())
+                .lastProbedAt(
+                        Optional.ofNullable(station.getLastProbedAt())
+                                .map(Timestamp::toInstant)
+                                .map(Instant::toString)
+                                .orElse(null)
+                )
+                .maxConcurrentJobs(station.getMaxConcurrentJobs())
+                .dispatchRate(station.getDispatchRate())
                 .metadata(station.getMetadata())
                 .directory(
                         Optional.ofNullable(station.getDirectory())
@@ -117,6 +128,8 @@ public class StationMapper {
                 .endpointDescription(dto.getEndpointDescription())
                 .metadata(dto.getMetadata())
                 .types(trainTypes)
+                .maxConcurrentJobs(dto.getMaxConcurrentJobs())
+                .dispatchRate(dto.getDispatchRate())
                 .softDeleted(
                         Optional.ofNullable(dto.getSoftDeleted())
                                 .orElse(station.getSoftDeleted())
@@ -136,7 +149,10 @@ public class StationMapper {
                 .endpointDescription(dto.getEndpointDescription())
                 .metadata(dto.getMetadata())
                 .types(trainTypes)
+                .maxConcurrentJobs(dto.getMaxConcurrentJobs())
+                .dispatchRate(dto.getDispatchRate())
                 .status(SyncItemStatus.SYNCED)
+                .health(StationHealth.UNKNOWN)
                 .softDeleted(false)
                 .createdAt(now)
                 .updatedAt(now)
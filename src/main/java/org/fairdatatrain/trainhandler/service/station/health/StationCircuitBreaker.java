@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.station.health;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+/**
+ * Circuit breaker per station. After {@code failureThreshold} consecutive
+ * failures (of probes or dispatches) the circuit opens and requests to the
+ * station are refused for {@code openDuration}; then a single trial request
+ * is let through (half-open), whose outcome closes or re-opens the circuit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationCircuitBreaker {
+
+    private final DispatcherConfig config;
+
+    private final Map<UUID, Circuit> circuits = new ConcurrentHashMap<>();
+
+    public boolean allowRequest(UUID stationUuid) {
+        final Circuit circuit = circuits.get(stationUuid);
+        if (circuit == null) {
+            return true;
+        }
+        synchronized (circuit) {
+            switch (circuit.state) {
+                case OPEN -> {
+                    final Instant retryAt = circuit.openedAt.plus(config.getHealth().getOpenDuration());
+                    if (Instant.now().isBefore(retryAt)) {
+                        return false;
+                    }
+                    circuit.state = CircuitState.HALF_OPEN;
+                    circuit.trialInFlight = true;
+                    return true;
+                }
+                case HALF_OPEN -> {
+                    if (circuit.trialInFlight) {
+                        return false;
+                    }
+                    circuit.trialInFlight = true;
+                    return true;
+                }
+                default -> {
+                    return true;
+                }
+            }
+        }
+    }
+
+    public void recordSuccess(UUID stationUuid) {
+        final Circuit circuit = circuits.computeIfAbsent(stationUuid, key -> new Circuit());
+        synchronized (circuit) {
+            if (circuit.state != CircuitState.CLOSED) {
+                log.info(format("Circuit of station %s closed", stationUuid));
+            }
+            circuit.state = CircuitState.CLOSED;
+            circuit.failures = 0;
+            circuit.trialInFlight = false;
+        }
+    }
+
+    public void recordFailure(UUID stationUuid) {
+        final Circuit circuit = circuits.computeIfAbsent(stationUuid, key -> new Circuit());
+        synchronized (circuit) {
+            circuit.failures++;
+            circuit.trialInFlight = false;
+            if (circuit.state == CircuitState.HALF_OPEN
+                    || circuit.failures >= config.getHealth().getFailureThreshold()) {
+                if (circuit.state != CircuitState.OPEN) {
+                    log.warn(format(
+                            "Circuit of station %s opened after %s failure(s)", stationUuid, circuit.failures
+                    ));
+                }
+                circuit.state = CircuitState.OPEN;
+                circuit.openedAt = Instant.now();
+            }
+        }
+    }
+
+    public CircuitState getState(UUID stationUuid) {
+        final Circuit circuit = circuits.get(stationUuid);
+        if (circuit == null) {
+            return CircuitState.CLOSED;
+        }
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    private static final class Circuit {
+
+        private CircuitState state = CircuitState.CLOSED;
+
+        private int failures;
+
+        private boolean trialInFlight;
+
+        private Instant openedAt;
+    }
+}
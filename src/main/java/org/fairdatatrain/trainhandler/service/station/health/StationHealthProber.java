@@ -0,0 +1,116 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.station.health;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.data.model.Station;
+import org.fairdatatrain.trainhandler.data.model.enums.StationHealth;
+import org.fairdatatrain.trainhandler.data.repository.StationRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static java.lang.String.format;
+import static org.fairdatatrain.trainhandler.utils.TimeUtils.now;
+
+/**
+ * Periodically sends a HEAD request to the endpoint of every active
+ * station, stores its health and latency and feeds the outcome to the
+ * {@link StationCircuitBreaker}. Any response other than a server error
+ * counts as the station being up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationHealthProber {
+
+    private final DispatcherConfig config;
+
+    private final StationRepository stationRepository;
+
+    private final StationCircuitBreaker stationCircuitBreaker;
+
+    private final WebClient dispatchWebClient;
+
+    @Scheduled(
+            initialDelayString = "${dispatcher.health.probeInterval:PT30S}",
+            fixedDelayString = "${dispatcher.health.probeInterval:PT30S}"
+    )
+    public void probeStations() {
+        Flux.fromIterable(stationRepository.findAllBySoftDeletedIsFalse())
+                .flatMap(this::probe, config.getHealth().getConcurrency())
+                .subscribe();
+    }
+
+    private Mono<Void> probe(Station station) {
+        return Mono.defer(() -> sendProbe(station)).then();
+    }
+
+    private Mono<Boolean> sendProbe(Station station) {
+        final String endpoint = station.getEndpointUrl() == null || station.getEndpointUrl().isBlank()
+                ? station.getUri()
+                : station.getEndpointUrl();
+        final long startedAt = System.nanoTime();
+        return dispatchWebClient
+                .head()
+                .uri(URI.create(endpoint))
+                .exchangeToMono(response -> {
+                    return response.releaseBody().thenReturn(!response.statusCode().is5xxServerError());
+                })
+                .timeout(config.getHealth().getProbeTimeout())
+                .onErrorReturn(false)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(healthy -> {
+                    storeHealth(station, healthy, Duration.ofNanos(System.nanoTime() - startedAt));
+                });
+    }
+
+    private void storeHealth(Station station, boolean healthy, Duration latency) {
+        final StationHealth health = healthy ? StationHealth.UP : StationHealth.DOWN;
+        if (healthy) {
+            stationCircuitBreaker.recordSuccess(station.getUuid());
+        }
+        else {
+            stationCircuitBreaker.recordFailure(station.getUuid());
+        }
+        if (health != station.getHealth()) {
+            log.info(format("Station %s is %s (was %s)", station.getUuid(), health, station.getHealth()));
+        }
+        try {
+            stationRepository.updateHealth(station.getUuid(), health, latency.toMillis(), now());
+        }
+        catch (Exception exception) {
+            log.warn(format(
+                    "Storing health of station %s failed: %s", station.getUuid(), exception.getMessage()
+            ));
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.eclipse.rdf4j.model.vocabulary.DCAT;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.fairdatatrain.trainhandler.data.model.*;
+import org.fairdatatrain.trainhandler.data.model.enums.StationHealth;
 import org.fairdatatrain.trainhandler.data.model.enums.SyncItemStatus;
 import org.fairdatatrain.trainhandler.data.model.enums.SyncServiceStatus;
 import org.fairdatatrain.trainhandler.data.repository.*;
@@ -270,6 +271,7 @@ public class StationDirectoryIndexer {
                 .types(matchingTrainTypes)
                 .directory(stationDirectory)
                 .status(SyncItemStatus.SYNCED)
+                .health(StationHealth.UNKNOWN)
                 .lastContactAt(now())
                 .createdAt(now())
                 .updatedAt(now())
@@ -0,0 +1,41 @@
+--
+-- The MIT License
+-- Copyright © 2022 FAIR Data Team
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in
+-- all copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+-- THE SOFTWARE.
+
+CREATE TABLE IF NOT EXISTS dispatch_outbox
+(
+    uuid             UUID      NOT NULL
+        CONSTRAINT dispatch_outbox_pk PRIMARY KEY,
+    job_id           UUID      NOT NULL,
+    attempts         INT       NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP NOT NULL,
+    last_error       TEXT,
+    lease_owner      VARCHAR,
+    lease_expires_at TIMESTAMP,
+    created_at       TIMESTAMP NOT NULL,
+    updated_at       TIMESTAMP NOT NULL
+);
+
+ALTER TABLE ONLY dispatch_outbox
+    ADD CONSTRAINT dispatch_outbox_job_fk FOREIGN KEY (job_id) REFERENCES job (uuid) ON DELETE CASCADE;
+
+CREATE INDEX dispatch_outbox_next_attempt_idx
+    ON dispatch_outbox (next_attempt_at);
@@ -0,0 +1,55 @@
+--
+-- The MIT License
+-- Copyright © 2022 FAIR Data Team
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in
+-- all copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+-- THE SOFTWARE.
+
+ALTER TABLE run
+    ADD COLUMN jobs_prepared INT NOT NULL DEFAULT 0,
+    ADD COLUMN jobs_queued   INT NOT NULL DEFAULT 0,
+    ADD COLUMN jobs_running  INT NOT NULL DEFAULT 0,
+    ADD COLUMN jobs_finished INT NOT NULL DEFAULT 0,
+    ADD COLUMN jobs_aborting INT NOT NULL DEFAULT 0,
+    ADD COLUMN jobs_aborted  INT NOT NULL DEFAULT 0,
+    ADD COLUMN jobs_errored  INT NOT NULL DEFAULT 0,
+    ADD COLUMN jobs_failed   INT NOT NULL DEFAULT 0;
+
+UPDATE run r
+SET jobs_prepared = c.prepared,
+    jobs_queued   = c.queued,
+    jobs_running  = c.running,
+    jobs_finished = c.finished,
+    jobs_aborting = c.aborting,
+    jobs_aborted  = c.aborted,
+    jobs_errored  = c.errored,
+    jobs_failed   = c.failed
+FROM (
+    SELECT j.run_id,
+           COUNT(*) FILTER (WHERE j.status = 'PREPARED') AS prepared,
+           COUNT(*) FILTER (WHERE j.status = 'QUEUED')   AS queued,
+           COUNT(*) FILTER (WHERE j.status = 'RUNNING')  AS running,
+           COUNT(*) FILTER (WHERE j.status = 'FINISHED') AS finished,
+           COUNT(*) FILTER (WHERE j.status = 'ABORTING') AS aborting,
+           COUNT(*) FILTER (WHERE j.status = 'ABORTED')  AS aborted,
+           COUNT(*) FILTER (WHERE j.status = 'ERRORED')  AS errored,
+           COUNT(*) FILTER (WHERE j.status = 'FAILED')   AS failed
+    FROM job j
+    GROUP BY j.run_id
+) c
+WHERE r.uuid = c.run_id;
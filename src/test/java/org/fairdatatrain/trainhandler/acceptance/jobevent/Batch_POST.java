@@ -0,0 +1,245 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.acceptance.jobevent;
+
+import org.fairdatatrain.trainhandler.acceptance.WebIntegrationTest;
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventCreateDTO;
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventDTO;
+import org.fairdatatrain.trainhandler.data.model.*;
+import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
+import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
+import org.fairdatatrain.trainhandler.data.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("POST /runs/:runUuid/jobs/:jobUuid/events/batch")
+public class Batch_POST extends WebIntegrationTest {
+
+	private static final int MAX_BATCH_SIZE = 1000;
+
+	private URI url(Job job) {
+		return URI.create(format("/runs/%s/jobs/%s/events/batch", job.getRun().getUuid(), job.getUuid()));
+	}
+
+	@Autowired
+	private TrainRepository trainRepository;
+
+	@Autowired
+	private StationRepository stationRepository;
+
+	@Autowired
+	private PlanRepository planRepository;
+
+	@Autowired
+	private PlanTargetRepository planTargetRepository;
+
+	@Autowired
+	private RunRepository runRepository;
+
+	@Autowired
+	private JobRepository jobRepository;
+
+	@Autowired
+	private JobEventRepository jobEventRepository;
+
+	@Autowired
+	private DispatchOutboxRepository dispatchOutboxRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	public void cleanUp() {
+		jobEventRepository.deleteAll();
+		dispatchOutboxRepository.deleteAll();
+		jobRepository.deleteAll();
+		runRepository.deleteAll();
+		planTargetRepository.deleteAll();
+		planRepository.deleteAll();
+		trainRepository.deleteAll();
+		stationRepository.deleteAll();
+	}
+
+	private Job prepareJob() {
+		Train train = trainRepository.save(JobEventTestFixtures.train());
+		Plan plan = planRepository.save(JobEventTestFixtures.plan(train));
+		PlanTarget target = planTargetRepository.save(
+				JobEventTestFixtures.planTarget(plan, stationRepository.save(JobEventTestFixtures.station()))
+		);
+		Run run = runRepository.save(JobEventTestFixtures.run(plan));
+		Job job = jobRepository.save(JobEventTestFixtures.job(run, target, "remote-0"));
+		transactionTemplate.executeWithoutResult(transaction -> runRepository.recountJobs(run.getUuid()));
+		return job;
+	}
+
+	private <T> ResponseEntity<T> post(
+			Job job, List<JobEventCreateDTO> events, ParameterizedTypeReference<T> responseType
+	) {
+		RequestEntity<List<JobEventCreateDTO>> request = RequestEntity
+				.post(url(job))
+				.accept(MediaType.APPLICATION_JSON)
+				.body(events);
+		return client.exchange(request, responseType);
+	}
+
+	private ResponseEntity<List<JobEventDTO>> post(Job job, List<JobEventCreateDTO> events) {
+		return post(job, events, new ParameterizedTypeReference<>() {
+		});
+	}
+
+	private ResponseEntity<String> postRejected(Job job, List<JobEventCreateDTO> events) {
+		return post(job, events, new ParameterizedTypeReference<>() {
+		});
+	}
+
+	private void assertNothingChanged(Job job) {
+		Job reloaded = jobRepository.findById(job.getUuid()).orElseThrow();
+		Run run = runRepository.findById(job.getRun().getUuid()).orElseThrow();
+		assertThat("No job events are stored", jobEventRepository.count(), is(equalTo(0L)));
+		assertThat("Job status is unchanged", reloaded.getStatus(), is(equalTo(JobStatus.QUEUED)));
+		assertThat("Job version is unchanged", reloaded.getVersion(), is(equalTo(job.getVersion())));
+		assertThat("Job is still counted as queued", run.getJobsQueued(), is(equalTo(1)));
+		assertThat("Run version is unchanged", run.getVersion(), is(equalTo(job.getRun().getVersion())));
+	}
+
+	@Test
+	@DisplayName("HTTP 200: batch updates job and run at once")
+	public void res200_batch() {
+		// GIVEN: prepare data
+		Job job = prepareJob();
+		List<JobEventCreateDTO> events = List.of(
+				JobEventTestFixtures.event(job, JobStatus.RUNNING, "Job is running"),
+				JobEventTestFixtures.event(job, null, "Job is working"),
+				JobEventTestFixtures.event(job, JobStatus.FINISHED, "Job is finished")
+		);
+
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = post(job, events);
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("All events are returned", result.getBody(), hasSize(3));
+		assertThat("All events are stored", jobEventRepository.count(), is(equalTo(3L)));
+		Job reloaded = jobRepository.findById(job.getUuid()).orElseThrow();
+		Run run = runRepository.findById(job.getRun().getUuid()).orElseThrow();
+		assertThat("Job is finished", reloaded.getStatus(), is(equalTo(JobStatus.FINISHED)));
+		assertThat("Job version is bumped", reloaded.getVersion(), is(greaterThan(job.getVersion())));
+		assertThat("Events share the new job version",
+				result.getBody().stream().map(JobEventDTO::getVersion).toList(),
+				everyItem(is(equalTo(reloaded.getVersion()))));
+		assertThat("Run version is bumped", run.getVersion(), is(greaterThan(job.getRun().getVersion())));
+		assertThat("Run version is the floor of the job version",
+				run.getVersion(), is(lessThanOrEqualTo(reloaded.getVersion())));
+		assertThat("Job is counted as finished", run.getJobsFinished(), is(equalTo(1)));
+		assertThat("No job is queued", run.getJobsQueued(), is(equalTo(0)));
+		assertThat("Run is finished", run.getStatus(), is(equalTo(RunStatus.FINISHED)));
+	}
+
+	@Test
+	@DisplayName("HTTP 403: mismatching secret within batch")
+	public void res403_secret() {
+		// GIVEN: prepare data
+		Job job = prepareJob();
+		JobEventCreateDTO other = JobEventTestFixtures.event(job, JobStatus.FINISHED, "Job is finished");
+		other.setSecret("other-secret");
+		List<JobEventCreateDTO> events = List.of(
+				JobEventTestFixtures.event(job, JobStatus.RUNNING, "Job is running"),
+				other
+		);
+
+		// WHEN:
+		ResponseEntity<String> result = postRejected(job, events);
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.FORBIDDEN)));
+		assertNothingChanged(job);
+	}
+
+	@Test
+	@DisplayName("HTTP 403: mismatching remote ID within batch")
+	public void res403_remoteId() {
+		// GIVEN: prepare data
+		Job job = prepareJob();
+		JobEventCreateDTO other = JobEventTestFixtures.event(job, JobStatus.FINISHED, "Job is finished");
+		other.setRemoteId("other-remote");
+		List<JobEventCreateDTO> events = List.of(
+				JobEventTestFixtures.event(job, JobStatus.RUNNING, "Job is running"),
+				other
+		);
+
+		// WHEN:
+		ResponseEntity<String> result = postRejected(job, events);
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.FORBIDDEN)));
+		assertNothingChanged(job);
+	}
+
+	@Test
+	@DisplayName("HTTP 400: empty batch")
+	public void res400_empty() {
+		// GIVEN: prepare data
+		Job job = prepareJob();
+
+		// WHEN:
+		ResponseEntity<String> result = postRejected(job, List.of());
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+		assertNothingChanged(job);
+	}
+
+	@Test
+	@DisplayName("HTTP 400: batch too large")
+	public void res400_tooLarge() {
+		// GIVEN: prepare data
+		Job job = prepareJob();
+		List<JobEventCreateDTO> events = new ArrayList<>();
+		for (int i = 0; i <= MAX_BATCH_SIZE; i++) {
+			events.add(JobEventTestFixtures.event(job, null, format("Event %d", i)));
+		}
+
+		// WHEN:
+		ResponseEntity<String> result = postRejected(job, events);
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+		assertNothingChanged(job);
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.acceptance.jobevent;
+
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventCreateDTO;
+import org.fairdatatrain.trainhandler.data.model.*;
+import org.fairdatatrain.trainhandler.data.model.enums.*;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+public class JobEventTestFixtures {
+
+    public static final String SECRET = "secret";
+
+    public static Train train() {
+        return Train.builder()
+                .uuid(UUID.randomUUID())
+                .createdAt(Timestamp.from(Instant.now()))
+                .updatedAt(Timestamp.from(Instant.now()))
+                .uri("https://example.com/fdt/train/A")
+                .title("Train A")
+                .description("")
+                .keywords("")
+                .softDeleted(false)
+                .status(SyncItemStatus.SYNCED)
+                .build();
+    }
+
+    public static Station station() {
+        return Station.builder()
+                .uuid(UUID.randomUUID())
+                .createdAt(Timestamp.from(Instant.now()))
+                .updatedAt(Timestamp.from(Instant.now()))
+                .uri("https://example.com/fdt/station/A")
+                .title("Station A")
+                .description("")
+                .keywords("")
+                .endpointUrl("https://example.com/fdt/station/A/endpoint")
+                .endpointDescription("")
+                .softDeleted(false)
+                .status(SyncItemStatus.SYNCED)
+                .health(StationHealth.UP)
+                .build();
+    }
+
+    public static Plan plan(Train train) {
+        return Plan.builder()
+                .uuid(UUID.randomUUID())
+                .createdAt(Timestamp.from(Instant.now()))
+                .updatedAt(Timestamp.from(Instant.now()))
+                .displayName("Plan A")
+                .note("")
+                .publishArtifacts(false)
+                .priority(0)
+                .train(train)
+                .build();
+    }
+
+    public static PlanTarget planTarget(Plan plan, Station station) {
+        return PlanTarget.builder()
+                .uuid(UUID.randomUUID())
+                .createdAt(Timestamp.from(Instant.now()))
+                .updatedAt(Timestamp.from(Instant.now()))
+                .plan(plan)
+                .station(station)
+                .publishArtifacts(false)
+                .build();
+    }
+
+    public static Run run(Plan plan) {
+        return Run.builder()
+                .uuid(UUID.randomUUID())
+                .createdAt(Timestamp.from(Instant.now()))
+                .updatedAt(Timestamp.from(Instant.now()))
+                .displayName("Run A")
+                .note("")
+                .status(RunStatus.RUNNING)
+                .priority(0)
+                .startedAt(Timestamp.from(Instant.now()))
+                .version(0L)
+                .plan(plan)
+                .build();
+    }
+
+    public static Job job(Run run, PlanTarget target, String remoteId) {
+        return Job.builder()
+                .uuid(UUID.randomUUID())
+                .createdAt(Timestamp.from(Instant.now()))
+                .updatedAt(Timestamp.from(Instant.now()))
+                .secret(SECRET)
+                .remoteId(remoteId)
+                .status(JobStatus.QUEUED)
+                .version(0L)
+                .run(run)
+                .target(target)
+                .build();
+    }
+
+    public static JobEventCreateDTO event(Job job, JobStatus resultStatus, String message) {
+        return JobEventCreateDTO.builder()
+                .resultStatus(resultStatus)
+                .message(message)
+                .occurredAt(Instant.now())
+                .remoteId(job.getRemoteId())
+                .secret(SECRET)
+                .build();
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.acceptance.jobevent;
+
+import org.fairdatatrain.trainhandler.acceptance.WebIntegrationTest;
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventDTO;
+import org.fairdatatrain.trainhandler.data.model.*;
+import org.fairdatatrain.trainhandler.data.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static java.lang.String.format;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("GET /runs/:runUuid/jobs/:jobUuid/events")
+public class List_GET extends WebIntegrationTest {
+
+	private static final int EVENTS = 5;
+
+	private URI url(Job job, String query) {
+		return URI.create(format("/runs/%s/jobs/%s/events%s", job.getRun().getUuid(), job.getUuid(), query));
+	}
+
+	@Autowired
+	private TrainRepository trainRepository;
+
+	@Autowired
+	private StationRepository stationRepository;
+
+	@Autowired
+	private PlanRepository planRepository;
+
+	@Autowired
+	private PlanTargetRepository planTargetRepository;
+
+	@Autowired
+	private RunRepository runRepository;
+
+	@Autowired
+	private JobRepository jobRepository;
+
+	@Autowired
+	private JobEventRepository jobEventRepository;
+
+	@Autowired
+	private DispatchOutboxRepository dispatchOutboxRepository;
+
+	private Job job;
+
+	private List<JobEvent> events;
+
+	private List<JobEvent> otherEvents;
+
+	@BeforeEach
+	public void prepareData() {
+		jobEventRepository.deleteAll();
+		dispatchOutboxRepository.deleteAll();
+		jobRepository.deleteAll();
+		runRepository.deleteAll();
+		planTargetRepository.deleteAll();
+		planRepository.deleteAll();
+		trainRepository.deleteAll();
+		stationRepository.deleteAll();
+
+		Train train = trainRepository.save(JobEventTestFixtures.train());
+		Plan plan = planRepository.save(JobEventTestFixtures.plan(train));
+		PlanTarget target = planTargetRepository.save(
+				JobEventTestFixtures.planTarget(plan, stationRepository.save(JobEventTestFixtures.station()))
+		);
+		Run run = runRepository.save(JobEventTestFixtures.run(plan));
+		job = jobRepository.save(JobEventTestFixtures.job(run, target, "remote-0"));
+		Job otherJob = jobRepository.save(JobEventTestFixtures.job(run, target, "remote-1"));
+		events = insertEvents(job);
+		otherEvents = insertEvents(otherJob);
+	}
+
+	private List<JobEvent> insertEvents(Job eventJob) {
+		Instant start = Instant.now().minusSeconds(EVENTS);
+		List<JobEvent> jobEvents = new ArrayList<>();
+		for (int i = 0; i < EVENTS; i++) {
+			Timestamp occurredAt = Timestamp.from(start.plusSeconds(i));
+			jobEvents.add(JobEvent.builder()
+					.uuid(UUID.randomUUID())
+					.message(format("Event %d", i))
+					.occurredAt(occurredAt)
+					.version(1L)
+					.job(eventJob)
+					.createdAt(occurredAt)
+					.updatedAt(occurredAt)
+					.build());
+		}
+		jobEventRepository.insertAll(jobEvents);
+		return jobEvents;
+	}
+
+	private ResponseEntity<List<JobEventDTO>> get(Job eventJob, String query) {
+		RequestEntity<Void> request = RequestEntity
+				.get(url(eventJob, query))
+				.build();
+		ParameterizedTypeReference<List<JobEventDTO>> responseType = new ParameterizedTypeReference<>() {
+		};
+		return client.exchange(request, responseType);
+	}
+
+	private ResponseEntity<?> getError(String query) {
+		RequestEntity<Void> request = RequestEntity
+				.get(url(job, query))
+				.build();
+		ParameterizedTypeReference<?> responseType = new ParameterizedTypeReference<>() {
+		};
+		return client.exchange(request, responseType);
+	}
+
+	private static List<UUID> uuids(List<JobEvent> jobEvents) {
+		return jobEvents.stream().map(JobEvent::getUuid).toList();
+	}
+
+	private static List<UUID> dtoUuids(List<JobEventDTO> dtos) {
+		return dtos.stream().map(JobEventDTO::getUuid).toList();
+	}
+
+	@Test
+	@DisplayName("HTTP 200: all events")
+	public void res200_all() {
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = get(job, "");
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("Body is not null", result.getBody(), is(notNullValue()));
+		assertThat("All events of the job are returned in order", dtoUuids(result.getBody()), is(equalTo(uuids(events))));
+	}
+
+	@Test
+	@DisplayName("HTTP 200: limit")
+	public void res200_limit() {
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = get(job, "?limit=2");
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("First events are returned", dtoUuids(result.getBody()), is(equalTo(uuids(events.subList(0, 2)))));
+	}
+
+	@Test
+	@DisplayName("HTTP 200: after")
+	public void res200_after() {
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = get(job, format("?after=%s&limit=2", events.get(1).getUuid()));
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("Events following the cursor are returned",
+				dtoUuids(result.getBody()), is(equalTo(uuids(events.subList(2, 4)))));
+	}
+
+	@Test
+	@DisplayName("HTTP 200: after the last event")
+	public void res200_afterLast() {
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = get(job, format("?after=%s", events.get(EVENTS - 1).getUuid()));
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("No events are returned", result.getBody(), is(empty()));
+	}
+
+	@Test
+	@DisplayName("HTTP 200: tail")
+	public void res200_tail() {
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = get(job, "?tail=true&limit=2");
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("Last events are returned in order",
+				dtoUuids(result.getBody()), is(equalTo(uuids(events.subList(EVENTS - 2, EVENTS)))));
+	}
+
+	@Test
+	@DisplayName("HTTP 200: minimal limit")
+	public void res200_minLimit() {
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = get(job, "?limit=1");
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("First event is returned", dtoUuids(result.getBody()), is(equalTo(uuids(events.subList(0, 1)))));
+	}
+
+	@Test
+	@DisplayName("HTTP 200: maximal limit")
+	public void res200_maxLimit() {
+		// WHEN:
+		ResponseEntity<List<JobEventDTO>> result = get(job, "?limit=1000");
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		assertThat("All events are returned", dtoUuids(result.getBody()), is(equalTo(uuids(events))));
+	}
+
+	@Test
+	@DisplayName("HTTP 400: limit too low")
+	public void res400_limitTooLow() {
+		// WHEN:
+		ResponseEntity<?> result = getError("?limit=0");
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+	}
+
+	@Test
+	@DisplayName("HTTP 400: limit too high")
+	public void res400_limitTooHigh() {
+		// WHEN:
+		ResponseEntity<?> result = getError("?limit=1001");
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+	}
+
+	@Test
+	@DisplayName("HTTP 400: after combined with tail")
+	public void res400_afterAndTail() {
+		// WHEN:
+		ResponseEntity<?> result = getError(format("?after=%s&tail=true", events.get(0).getUuid()));
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+	}
+
+	@Test
+	@DisplayName("HTTP 404: cursor of another job")
+	public void res404_foreignCursor() {
+		// WHEN:
+		ResponseEntity<?> result = getError(format("?after=%s", otherEvents.get(0).getUuid()));
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.NOT_FOUND)));
+	}
+
+	@Test
+	@DisplayName("HTTP 404: unknown cursor")
+	public void res404_unknownCursor() {
+		// WHEN:
+		ResponseEntity<?> result = getError(format("?after=%s", UUID.randomUUID()));
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.NOT_FOUND)));
+	}
+}
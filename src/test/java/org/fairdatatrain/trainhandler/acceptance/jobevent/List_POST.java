@@ -0,0 +1,258 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.acceptance.jobevent;
+
+import org.fairdatatrain.trainhandler.acceptance.WebIntegrationTest;
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventCreateDTO;
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventDTO;
+import org.fairdatatrain.trainhandler.data.model.*;
+import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
+import org.fairdatatrain.trainhandler.data.model.enums.RunStatus;
+import org.fairdatatrain.trainhandler.data.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("POST /runs/:runUuid/jobs/:jobUuid/events")
+public class List_POST extends WebIntegrationTest {
+
+	private static final int PARALLEL_JOBS = 8;
+
+	private URI url(Job job) {
+		return URI.create(format("/runs/%s/jobs/%s/events", job.getRun().getUuid(), job.getUuid()));
+	}
+
+	@Autowired
+	private TrainRepository trainRepository;
+
+	@Autowired
+	private StationRepository stationRepository;
+
+	@Autowired
+	private PlanRepository planRepository;
+
+	@Autowired
+	private PlanTargetRepository planTargetRepository;
+
+	@Autowired
+	private RunRepository runRepository;
+
+	@Autowired
+	private JobRepository jobRepository;
+
+	@Autowired
+	private JobEventRepository jobEventRepository;
+
+	@Autowired
+	private DispatchOutboxRepository dispatchOutboxRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	public void cleanUp() {
+		jobEventRepository.deleteAll();
+		dispatchOutboxRepository.deleteAll();
+		jobRepository.deleteAll();
+		runRepository.deleteAll();
+		planTargetRepository.deleteAll();
+		planRepository.deleteAll();
+		trainRepository.deleteAll();
+		stationRepository.deleteAll();
+	}
+
+	private List<Job> prepareJobs(int count) {
+		Train train = trainRepository.save(JobEventTestFixtures.train());
+		Plan plan = planRepository.save(JobEventTestFixtures.plan(train));
+		PlanTarget target = planTargetRepository.save(
+				JobEventTestFixtures.planTarget(plan, stationRepository.save(JobEventTestFixtures.station()))
+		);
+		Run run = runRepository.save(JobEventTestFixtures.run(plan));
+		List<Job> jobs = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			jobs.add(jobRepository.save(JobEventTestFixtures.job(run, target, format("remote-%d", i))));
+		}
+		transactionTemplate.executeWithoutResult(transaction -> runRepository.recountJobs(run.getUuid()));
+		return jobs;
+	}
+
+	private ResponseEntity<JobEventDTO> post(Job job, JobStatus resultStatus) {
+		RequestEntity<JobEventCreateDTO> request = RequestEntity
+				.post(url(job))
+				.accept(MediaType.APPLICATION_JSON)
+				.body(JobEventTestFixtures.event(job, resultStatus, format("Job is %s", resultStatus)));
+		ParameterizedTypeReference<JobEventDTO> responseType = new ParameterizedTypeReference<>() {
+		};
+		return client.exchange(request, responseType);
+	}
+
+	private Run reload(Run run) {
+		return runRepository.findById(run.getUuid()).orElseThrow();
+	}
+
+	private void assertCountersMatchJobs(Run run) {
+		List<Job> jobs = jobRepository.findAll().stream()
+				.filter(job -> job.getRun().getUuid().equals(run.getUuid()))
+				.toList();
+		assertThat("Prepared counter matches jobs", run.getJobsPrepared(), is(equalTo(count(jobs, JobStatus.PREPARED))));
+		assertThat("Queued counter matches jobs", run.getJobsQueued(), is(equalTo(count(jobs, JobStatus.QUEUED))));
+		assertThat("Running counter matches jobs", run.getJobsRunning(), is(equalTo(count(jobs, JobStatus.RUNNING))));
+		assertThat("Finished counter matches jobs", run.getJobsFinished(), is(equalTo(count(jobs, JobStatus.FINISHED))));
+		assertThat("Aborting counter matches jobs", run.getJobsAborting(), is(equalTo(count(jobs, JobStatus.ABORTING))));
+		assertThat("Aborted counter matches jobs", run.getJobsAborted(), is(equalTo(count(jobs, JobStatus.ABORTED))));
+		assertThat("Errored counter matches jobs", run.getJobsErrored(), is(equalTo(count(jobs, JobStatus.ERRORED))));
+		assertThat("Failed counter matches jobs", run.getJobsFailed(), is(equalTo(count(jobs, JobStatus.FAILED))));
+	}
+
+	private static int count(List<Job> jobs, JobStatus status) {
+		return (int) jobs.stream().filter(job -> job.getStatus() == status).count();
+	}
+
+	@Test
+	@DisplayName("HTTP 200: counters follow transitions")
+	public void res200_transitions() {
+		// GIVEN: prepare data
+		List<Job> jobs = prepareJobs(2);
+		Job first = jobs.get(0);
+		Job second = jobs.get(1);
+
+		// WHEN: first job starts
+		ResponseEntity<JobEventDTO> result = post(first, JobStatus.RUNNING);
+
+		// THEN:
+		assertThat("Correct response code is received", result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+		Run run = reload(first.getRun());
+		assertThat("One job is running", run.getJobsRunning(), is(equalTo(1)));
+		assertThat("One job is queued", run.getJobsQueued(), is(equalTo(1)));
+		assertThat("Run is running", run.getStatus(), is(equalTo(RunStatus.RUNNING)));
+		assertCountersMatchJobs(run);
+
+		// WHEN: first job finishes while the second is still queued
+		post(first, JobStatus.FINISHED);
+
+		// THEN:
+		run = reload(run);
+		assertThat("One job is finished", run.getJobsFinished(), is(equalTo(1)));
+		assertThat("No job is running", run.getJobsRunning(), is(equalTo(0)));
+		assertThat("Run is not finished yet", run.getStatus(), is(equalTo(RunStatus.RUNNING)));
+		assertThat("Run has no finish time yet", run.getFinishedAt(), is(nullValue()));
+		assertCountersMatchJobs(run);
+
+		// WHEN: second job runs and finishes
+		post(second, JobStatus.RUNNING);
+		post(second, JobStatus.FINISHED);
+
+		// THEN:
+		run = reload(run);
+		assertThat("Both jobs are finished", run.getJobsFinished(), is(equalTo(2)));
+		assertThat("Run is finished", run.getStatus(), is(equalTo(RunStatus.FINISHED)));
+		assertThat("Run has a finish time", run.getFinishedAt(), is(notNullValue()));
+		assertCountersMatchJobs(run);
+	}
+
+	@Test
+	@DisplayName("HTTP 200: repeated status does not change counters")
+	public void res200_repeatedStatus() {
+		// GIVEN: prepare data
+		List<Job> jobs = prepareJobs(2);
+		Job job = jobs.get(0);
+		post(job, JobStatus.RUNNING);
+
+		// WHEN:
+		post(job, JobStatus.RUNNING);
+		post(job, JobStatus.RUNNING);
+		post(job, null);
+
+		// THEN:
+		Run run = reload(job.getRun());
+		assertThat("Job is counted as running once", run.getJobsRunning(), is(equalTo(1)));
+		assertThat("Other job is still queued", run.getJobsQueued(), is(equalTo(1)));
+		assertThat("Run is running", run.getStatus(), is(equalTo(RunStatus.RUNNING)));
+		assertCountersMatchJobs(run);
+
+		// WHEN:
+		post(job, JobStatus.FAILED);
+		post(job, JobStatus.FAILED);
+
+		// THEN:
+		run = reload(run);
+		assertThat("Job is counted as failed once", run.getJobsFailed(), is(equalTo(1)));
+		assertThat("No job is running", run.getJobsRunning(), is(equalTo(0)));
+		assertThat("Other job is still queued", run.getJobsQueued(), is(equalTo(1)));
+		assertCountersMatchJobs(run);
+	}
+
+	@Test
+	@DisplayName("HTTP 200: parallel jobs of one run")
+	public void res200_parallelJobs() throws Exception {
+		// GIVEN: prepare data
+		List<Job> jobs = prepareJobs(PARALLEL_JOBS);
+		ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_JOBS);
+		List<Future<List<HttpStatus>>> futures = new ArrayList<>();
+
+		// WHEN: all jobs report concurrently, the first one fails
+		for (int i = 0; i < PARALLEL_JOBS; i++) {
+			Job job = jobs.get(i);
+			JobStatus result = i == 0 ? JobStatus.FAILED : JobStatus.FINISHED;
+			futures.add(executor.submit(() -> List.of(
+					post(job, JobStatus.RUNNING).getStatusCode(),
+					post(job, null).getStatusCode(),
+					post(job, result).getStatusCode()
+			)));
+		}
+		for (Future<List<HttpStatus>> future : futures) {
+			assertThat("Correct response codes are received",
+					future.get(1, TimeUnit.MINUTES), everyItem(is(equalTo(HttpStatus.OK))));
+		}
+		executor.shutdown();
+
+		// THEN:
+		Run run = reload(jobs.get(0).getRun());
+		assertThat("Finished jobs are counted", run.getJobsFinished(), is(equalTo(PARALLEL_JOBS - 1)));
+		assertThat("Failed job is counted", run.getJobsFailed(), is(equalTo(1)));
+		assertThat("No job is running", run.getJobsRunning(), is(equalTo(0)));
+		assertThat("No job is queued", run.getJobsQueued(), is(equalTo(0)));
+		assertThat("Run is failed", run.getStatus(), is(equalTo(RunStatus.FAILED)));
+		assertThat("Run has a finish time", run.getFinishedAt(), is(notNullValue()));
+		assertCountersMatchJobs(run);
+	}
+}
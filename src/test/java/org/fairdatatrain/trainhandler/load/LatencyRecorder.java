@@ -0,0 +1,102 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Collects latencies of named operations and renders them as a table of
+ * throughput and latency percentiles.
+ */
+public class LatencyRecorder {
+
+	private static final String ROW = "%-20s %8s %8s %10s %10s %10s %10s %10s%n";
+
+	private final Map<String, Queue<Long>> samples = new ConcurrentSkipListMap<>();
+
+	private final Map<String, AtomicLong> errors = new ConcurrentSkipListMap<>();
+
+	public void record(String operation, long startedAtNanos) {
+		samples.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>())
+				.add(System.nanoTime() - startedAtNanos);
+	}
+
+	public void error(String operation) {
+		errors.computeIfAbsent(operation, key -> new AtomicLong()).incrementAndGet();
+	}
+
+	public long count(String operation) {
+		final Queue<Long> operationSamples = samples.get(operation);
+		return operationSamples == null ? 0 : operationSamples.size();
+	}
+
+	public long errors() {
+		return errors.values().stream().mapToLong(AtomicLong::get).sum();
+	}
+
+	public String report(Duration elapsed) {
+		final StringBuilder report = new StringBuilder();
+		report.append(format("Load test finished in %s%n", elapsed));
+		report.append(format(ROW, "operation", "count", "errors", "rate/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+		samples.forEach((operation, operationSamples) -> {
+			final long[] sorted = operationSamples.stream().mapToLong(Long::longValue).sorted().toArray();
+			report.append(format(
+					ROW,
+					operation,
+					sorted.length,
+					errors.getOrDefault(operation, new AtomicLong()).get(),
+					format("%.1f", sorted.length * 1000.0 / Math.max(1, elapsed.toMillis())),
+					millis(percentile(sorted, 0.5)),
+					millis(percentile(sorted, 0.9)),
+					millis(percentile(sorted, 0.99)),
+					millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])
+			));
+		});
+		errors.keySet().stream()
+				.filter(operation -> !samples.containsKey(operation))
+				.forEach(operation -> report.append(format(
+						ROW, operation, 0, errors.get(operation).get(), "-", "-", "-", "-", "-"
+				)));
+		return report.toString();
+	}
+
+	private static long percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		final int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	private static String millis(long nanos) {
+		return format("%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+}
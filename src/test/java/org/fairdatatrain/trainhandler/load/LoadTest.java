@@ -0,0 +1,266 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fairdatatrain.trainhandler.acceptance.WebIntegrationTest;
+import org.fairdatatrain.trainhandler.api.dto.run.RunCreateDTO;
+import org.fairdatatrain.trainhandler.api.dto.run.RunDTO;
+import org.fairdatatrain.trainhandler.data.model.*;
+import org.fairdatatrain.trainhandler.data.model.enums.StationHealth;
+import org.fairdatatrain.trainhandler.data.model.enums.SyncItemStatus;
+import org.fairdatatrain.trainhandler.data.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.RestClientException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * End-to-end load test: creates runs of a plan targeting in-process stub
+ * stations, which replay event and artifact callbacks for every dispatched
+ * job, while simulated clients long-poll the runs. Prints throughput and
+ * latency percentiles of every operation.
+ *
+ * <p>Run with {@code mvn test -Pload-test}; the size of the test is set by
+ * the {@code loadtest.*} system properties.</p>
+ */
+@Tag("load-test")
+@DisplayName("Load test: runs, dispatch, callbacks and polls")
+@TestPropertySource(properties = {"dispatcher.polling.timeout=PT10S"})
+public class LoadTest extends WebIntegrationTest {
+
+	private static final int STATIONS = Integer.getInteger("loadtest.stations", 10);
+
+	private static final int RUNS = Integer.getInteger("loadtest.runs", 50);
+
+	private static final int POLLERS = Integer.getInteger("loadtest.pollers", 20);
+
+	private static final int EVENTS = Integer.getInteger("loadtest.events", 5);
+
+	private static final int ARTIFACTS = Integer.getInteger("loadtest.artifacts", 1);
+
+	private static final Duration TIMEOUT = Duration.parse(System.getProperty("loadtest.timeout", "PT5M"));
+
+	private static final long WAIT_MILLIS = 100;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TrainTypeRepository trainTypeRepository;
+
+	@Autowired
+	private TrainRepository trainRepository;
+
+	@Autowired
+	private StationRepository stationRepository;
+
+	@Autowired
+	private PlanRepository planRepository;
+
+	@Autowired
+	private PlanTargetRepository planTargetRepository;
+
+	@Test
+	@DisplayName("All dispatched jobs finish under load")
+	public void allJobsFinish() throws Exception {
+		// GIVEN: stub stations and a plan targeting all of them
+		final LatencyRecorder recorder = new LatencyRecorder();
+		final Map<UUID, Long> runsCreatedAt = new ConcurrentHashMap<>();
+		final AtomicInteger finishedJobs = new AtomicInteger();
+		final List<StubStation> stubs = new ArrayList<>();
+		for (int index = 0; index < STATIONS; index++) {
+			stubs.add(new StubStation(objectMapper, recorder, runsCreatedAt, EVENTS, ARTIFACTS, finishedJobs));
+		}
+		final Plan plan = preparePlan(stubs);
+		final List<UUID> runUuids = new CopyOnWriteArrayList<>();
+		final AtomicBoolean done = new AtomicBoolean();
+		final ExecutorService pollers = Executors.newFixedThreadPool(POLLERS);
+		try {
+			// WHEN: runs are created while clients long-poll them
+			final Instant start = Instant.now();
+			for (int index = 0; index < POLLERS; index++) {
+				pollers.submit(() -> poll(recorder, runUuids, done));
+			}
+			for (int index = 0; index < RUNS; index++) {
+				createRun(recorder, plan, index, runsCreatedAt, runUuids);
+			}
+			final int expectedJobs = RUNS * STATIONS;
+			final Instant deadline = start.plus(TIMEOUT);
+			while (finishedJobs.get() < expectedJobs && Instant.now().isBefore(deadline)) {
+				Thread.sleep(WAIT_MILLIS);
+			}
+			final Duration elapsed = Duration.between(start, Instant.now());
+			done.set(true);
+
+			// THEN:
+			System.out.println(recorder.report(elapsed));
+			assertThat("All jobs finished", finishedJobs.get(), is(equalTo(expectedJobs)));
+		}
+		finally {
+			done.set(true);
+			pollers.shutdownNow();
+			stubs.forEach(StubStation::close);
+		}
+	}
+
+	private void createRun(
+			LatencyRecorder recorder, Plan plan, int index, Map<UUID, Long> runsCreatedAt, List<UUID> runUuids
+	) {
+		final long startedAt = System.nanoTime();
+		try {
+			final ResponseEntity<RunDTO> response = client.postForEntity(
+					"/runs",
+					RunCreateDTO.builder()
+							.displayName("Load test run " + index)
+							.note("")
+							.planUuid(plan.getUuid())
+							.build(),
+					RunDTO.class
+			);
+			if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+				recorder.record("run.create", startedAt);
+				runsCreatedAt.put(response.getBody().getUuid(), startedAt);
+				runUuids.add(response.getBody().getUuid());
+				return;
+			}
+		}
+		catch (RestClientException exception) {
+			// counted as error below
+		}
+		recorder.error("run.create");
+	}
+
+	private void poll(LatencyRecorder recorder, List<UUID> runUuids, AtomicBoolean done) {
+		final Map<UUID, Long> versions = new HashMap<>();
+		while (!done.get() && !Thread.currentThread().isInterrupted()) {
+			if (runUuids.isEmpty()) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS));
+				continue;
+			}
+			final UUID runUuid = runUuids.get(ThreadLocalRandom.current().nextInt(runUuids.size()));
+			final long startedAt = System.nanoTime();
+			try {
+				final ResponseEntity<RunDTO> response = client.getForEntity(
+						format("/runs/%s?after=%d", runUuid, versions.getOrDefault(runUuid, 0L)),
+						RunDTO.class
+				);
+				if (response.getStatusCode().is2xxSuccessful()) {
+					recorder.record("poll", startedAt);
+					Optional.ofNullable(response.getBody())
+							.ifPresent(run -> versions.put(runUuid, run.getVersion()));
+				}
+				else if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+					recorder.record("poll.timeout", startedAt);
+				}
+				else {
+					recorder.error("poll");
+				}
+			}
+			catch (RestClientException exception) {
+				recorder.error("poll");
+			}
+		}
+	}
+
+	private Plan preparePlan(List<StubStation> stubs) {
+		final Timestamp now = Timestamp.from(Instant.now());
+		final TrainType trainType = trainTypeRepository.saveAndFlush(TrainType.builder()
+				.uuid(UUID.randomUUID())
+				.uri("https://example.com/fdt/train-type/load-test")
+				.title("Load test")
+				.note("")
+				.createdAt(now)
+				.updatedAt(now)
+				.build());
+		final Train train = trainRepository.saveAndFlush(Train.builder()
+				.uuid(UUID.randomUUID())
+				.uri("https://example.com/fdt/train/load-test")
+				.title("Load test train")
+				.description("")
+				.keywords("")
+				.metadata("")
+				.softDeleted(false)
+				.status(SyncItemStatus.SYNCED)
+				.types(List.of(trainType))
+				.lastContactAt(now)
+				.createdAt(now)
+				.updatedAt(now)
+				.build());
+		final Plan plan = planRepository.saveAndFlush(Plan.builder()
+				.uuid(UUID.randomUUID())
+				.displayName("Load test plan")
+				.note("")
+				.publishArtifacts(false)
+				.priority(0)
+				.train(train)
+				.createdAt(now)
+				.updatedAt(now)
+				.build());
+		for (StubStation stub : stubs) {
+			final Station station = stationRepository.saveAndFlush(Station.builder()
+					.uuid(UUID.randomUUID())
+					.uri(stub.getUri())
+					.title("Stub station " + stub.getUri())
+					.description("")
+					.keywords("")
+					.endpointUrl(stub.getUri())
+					.endpointDescription("")
+					.metadata("")
+					.softDeleted(false)
+					.status(SyncItemStatus.SYNCED)
+					.health(StationHealth.UNKNOWN)
+					.types(List.of(trainType))
+					.createdAt(now)
+					.updatedAt(now)
+					.build());
+			planTargetRepository.saveAndFlush(PlanTarget.builder()
+					.uuid(UUID.randomUUID())
+					.plan(plan)
+					.station(station)
+					.publishArtifacts(false)
+					.createdAt(now)
+					.updatedAt(now)
+					.build());
+		}
+		return plan;
+	}
+}
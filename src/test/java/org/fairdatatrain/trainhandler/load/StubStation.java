@@ -0,0 +1,209 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.fairdatatrain.trainhandler.api.dto.job.JobArtifactCreateDTO;
+import org.fairdatatrain.trainhandler.api.dto.job.JobEventCreateDTO;
+import org.fairdatatrain.trainhandler.data.model.enums.JobStatus;
+import org.fairdatatrain.trainhandler.service.dispatch.DispatchPayload;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fairdatatrain.trainhandler.utils.HashUtils.bytesToHex;
+
+/**
+ * In-process station accepting dispatched jobs. For every job it replays
+ * a stream of running events and artifacts followed by a finishing event
+ * to the callback locations from the {@link DispatchPayload}.
+ */
+public class StubStation implements AutoCloseable {
+
+	private static final int ARTIFACT_SIZE = 1024;
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final HttpClient client;
+
+	private final ObjectMapper objectMapper;
+
+	private final LatencyRecorder recorder;
+
+	private final Map<UUID, Long> runsCreatedAt;
+
+	private final int events;
+
+	private final int artifacts;
+
+	private final AtomicInteger finishedJobs;
+
+	public StubStation(
+			ObjectMapper objectMapper,
+			LatencyRecorder recorder,
+			Map<UUID, Long> runsCreatedAt,
+			int events,
+			int artifacts,
+			AtomicInteger finishedJobs
+	) throws IOException {
+		this.objectMapper = objectMapper;
+		this.recorder = recorder;
+		this.runsCreatedAt = runsCreatedAt;
+		this.events = events;
+		this.artifacts = artifacts;
+		this.finishedJobs = finishedJobs;
+		this.executor = Executors.newCachedThreadPool();
+		this.client = HttpClient.newBuilder().executor(executor).build();
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/", this::handle);
+		this.server.setExecutor(executor);
+		this.server.start();
+	}
+
+	public String getUri() {
+		return "http://localhost:" + server.getAddress().getPort() + "/";
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			final DispatchPayload payload =
+					objectMapper.readValue(exchange.getRequestBody(), DispatchPayload.class);
+			final UUID runUuid = runUuidOf(payload);
+			if (runUuid != null && runsCreatedAt.containsKey(runUuid)) {
+				recorder.record("dispatch", runsCreatedAt.get(runUuid));
+			}
+			final byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, response.length);
+			exchange.getResponseBody().write(response);
+			executor.submit(() -> replay(payload));
+		}
+	}
+
+	private void replay(DispatchPayload payload) {
+		final String remoteId = "stub-" + payload.getJobUuid();
+		for (int event = 1; event < events; event++) {
+			post("callback.event", payload.getCallbackEventLocation(), JobEventCreateDTO.builder()
+					.remoteId(remoteId)
+					.secret(payload.getSecret())
+					.message("Step " + event + " of " + events)
+					.resultStatus(JobStatus.RUNNING)
+					.occurredAt(Instant.now())
+					.build());
+		}
+		for (int artifact = 1; artifact <= artifacts; artifact++) {
+			final byte[] data = new byte[ARTIFACT_SIZE];
+			ThreadLocalRandom.current().nextBytes(data);
+			post("callback.artifact", payload.getCallbackArtifactLocation(), JobArtifactCreateDTO.builder()
+					.remoteId(remoteId)
+					.secret(payload.getSecret())
+					.displayName("Artifact " + artifact)
+					.filename("artifact-" + artifact + ".bin")
+					.contentType("application/octet-stream")
+					.bytesize((long) data.length)
+					.hash(sha256(data))
+					.base64data(Base64.getEncoder().encodeToString(data))
+					.occurredAt(Instant.now())
+					.build());
+		}
+		if (post("callback.finish", payload.getCallbackEventLocation(), JobEventCreateDTO.builder()
+				.remoteId(remoteId)
+				.secret(payload.getSecret())
+				.message("Finished")
+				.resultStatus(JobStatus.FINISHED)
+				.occurredAt(Instant.now())
+				.build())) {
+			finishedJobs.incrementAndGet();
+		}
+	}
+
+	private boolean post(String operation, String location, Object body) {
+		final long startedAt = System.nanoTime();
+		try {
+			final HttpRequest request = HttpRequest.newBuilder(URI.create(location))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+					.build();
+			final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() / 100 == 2) {
+				recorder.record(operation, startedAt);
+				return true;
+			}
+		}
+		catch (IOException exception) {
+			// counted as error below
+		}
+		catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+		recorder.error(operation);
+		return false;
+	}
+
+	private static UUID runUuidOf(DispatchPayload payload) {
+		final String[] segments = URI.create(payload.getCallbackEventLocation()).getPath().split("/");
+		for (int index = 0; index < segments.length - 1; index++) {
+			if ("runs".equals(segments[index])) {
+				return UUID.fromString(segments[index + 1]);
+			}
+		}
+		return null;
+	}
+
+	private static String sha256(byte[] data) {
+		try {
+			return bytesToHex(MessageDigest.getInstance("SHA-256").digest(data));
+		}
+		catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.async;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("PollRegistry")
+public class PollRegistryTest {
+
+	private static final int OPERATIONS_PER_THREAD = 200_000;
+
+	private static final int UUIDS_PER_THREAD = 64;
+
+	private static final int SMALL_THREADS = 4;
+
+	private static final int SMALL_OPERATIONS_PER_THREAD = 1_000;
+
+	private PollContainer<String> container(Long version) {
+		return new PollContainer<>(
+				version, Instant.now().plusSeconds(60), PollMode.FULL, new DeferredResult<>()
+		);
+	}
+
+	@Test
+	@DisplayName("Releases only eligible waiters")
+	public void releasesEligibleWaiters() {
+		// GIVEN:
+		PollRegistry<String> registry = new PollRegistry<>();
+		UUID uuid = UUID.randomUUID();
+		PollContainer<String> older = container(5L);
+		PollContainer<String> newer = container(10L);
+		registry.enqueue(uuid, older);
+		registry.enqueue(uuid, newer);
+
+		// WHEN:
+		List<PollContainer<String>> released = registry.release(uuid, 7L);
+
+		// THEN:
+		assertThat("Only the older waiter is released", released, contains(older));
+		assertThat("The newer waiter remains", registry.size(uuid), is(equalTo(1)));
+	}
+
+	@Test
+	@DisplayName("Keeps waiters of different UUIDs apart")
+	public void keepsUuidsApart() {
+		// GIVEN:
+		PollRegistry<String> registry = new PollRegistry<>();
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		List<PollContainer<String>> secondContainers = new ArrayList<>();
+		for (long version = 1; version <= 10; version++) {
+			registry.enqueue(first, container(version));
+			PollContainer<String> container = container(version);
+			registry.enqueue(second, container);
+			secondContainers.add(container);
+		}
+
+		// WHEN:
+		List<PollContainer<String>> releasedFirst = registry.release(first, 10L);
+		List<PollContainer<String>> releasedSecond = registry.release(second, 4L);
+		boolean removed = registry.remove(second, secondContainers.get(9));
+
+		// THEN:
+		assertThat("All waiters of the first UUID are released", releasedFirst, hasSize(10));
+		assertThat("Waiters of the second UUID up to its version are released",
+				releasedSecond, is(equalTo(secondContainers.subList(0, 4))));
+		assertThat("A waiting container can be removed", removed, is(true));
+		assertThat("Remaining waiters of the second UUID", registry.size(second), is(equalTo(5)));
+		assertThat("Remaining waiters overall", registry.size(), is(equalTo(5)));
+		assertThat("Released UUIDs leave no bucket behind", registry.buckets(), is(equalTo(1)));
+	}
+
+	@Test
+	@DisplayName("Releases every waiter with concurrent pollers")
+	public void releasesConcurrently() throws Exception {
+		// WHEN:
+		long operations = runConcurrently(SMALL_THREADS, SMALL_OPERATIONS_PER_THREAD, new PollRegistry<>());
+
+		// THEN:
+		assertThat("All waiters are released",
+				operations, is(equalTo((long) SMALL_THREADS * SMALL_OPERATIONS_PER_THREAD)));
+	}
+
+	@Test
+	@Tag("load-test")
+	@DisplayName("Releases every waiter under concurrent load")
+	public void concurrentStress() throws Exception {
+		int cores = Runtime.getRuntime().availableProcessors();
+		List<Integer> threadCounts = new ArrayList<>();
+		for (int threads = 1; threads < cores; threads *= 2) {
+			threadCounts.add(threads);
+		}
+		threadCounts.add(cores);
+
+		for (int threads : threadCounts) {
+			// GIVEN:
+			PollRegistry<String> registry = new PollRegistry<>();
+
+			// WHEN:
+			long released = runConcurrently(threads, OPERATIONS_PER_THREAD, registry);
+
+			// THEN:
+			assertThat("All waiters are released",
+					released, is(equalTo((long) threads * OPERATIONS_PER_THREAD)));
+			assertThat("No waiter is left", registry.size(), is(equalTo(0)));
+		}
+	}
+
+	private long runConcurrently(int threads, int operationsPerThread, PollRegistry<String> registry)
+			throws Exception {
+		AtomicLong released = new AtomicLong();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(executor.submit(() -> {
+				List<UUID> uuids = new ArrayList<>();
+				for (int i = 0; i < UUIDS_PER_THREAD; i++) {
+					uuids.add(UUID.randomUUID());
+				}
+				start.await();
+				for (int i = 0; i < operationsPerThread; i++) {
+					UUID uuid = uuids.get(i % UUIDS_PER_THREAD);
+					registry.enqueue(uuid, container((long) i));
+					registry.release(uuid, (long) i).forEach(container -> {
+						container.getResult().setResult("done");
+						released.incrementAndGet();
+					});
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(5, TimeUnit.MINUTES);
+		}
+		executor.shutdown();
+		return released.get();
+	}
+}
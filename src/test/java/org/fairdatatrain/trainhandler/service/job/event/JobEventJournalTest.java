@@ -0,0 +1,223 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.job.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.fairdatatrain.trainhandler.data.model.Job;
+import org.fairdatatrain.trainhandler.data.model.JobEvent;
+import org.fairdatatrain.trainhandler.data.repository.JobEventRepository;
+import org.fairdatatrain.trainhandler.data.repository.JobRepository;
+import org.fairdatatrain.trainhandler.data.repository.RunRepository;
+import org.fairdatatrain.trainhandler.data.repository.VersionBump;
+import org.fairdatatrain.trainhandler.service.async.NotificationCoalescer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("JobEventJournal")
+public class JobEventJournalTest {
+
+	private static final long VERSION = 42L;
+
+	private static final int THREADS = 8;
+
+	private static final int EVENTS_PER_THREAD = 25;
+
+	@TempDir
+	Path directory;
+
+	private final DispatcherConfig config = new DispatcherConfig();
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	private final JobEventRepository jobEventRepository = mock(JobEventRepository.class);
+
+	private final JobRepository jobRepository = mock(JobRepository.class);
+
+	private final RunRepository runRepository = mock(RunRepository.class);
+
+	private final NotificationCoalescer notificationCoalescer = mock(NotificationCoalescer.class);
+
+	private final TransactionTemplate transactionTemplate =
+			new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		config.getJournal().setEnabled(true);
+		config.getJournal().setDirectory(directory.toString());
+		when(runRepository.bumpVersions(anyCollection(), anyLong(), any())).thenAnswer(invocation ->
+				bumps(invocation.getArgument(0, Collection.class), invocation.getArgument(1, Long.class))
+		);
+		when(jobRepository.bumpVersions(anyCollection(), anyLong(), any())).thenAnswer(invocation ->
+				bumps(invocation.getArgument(0, Collection.class), VERSION)
+		);
+	}
+
+	private JobEventJournal journal(MeterRegistry meterRegistry) throws Exception {
+		JobEventJournalFlusher flusher = new JobEventJournalFlusher(
+				config, objectMapper, jobEventRepository, jobRepository, runRepository,
+				notificationCoalescer, transactionTemplate, meterRegistry
+		);
+		flusher.init();
+		JobEventJournal journal = new JobEventJournal(config, objectMapper, flusher, meterRegistry);
+		journal.init();
+		return journal;
+	}
+
+	private static List<VersionBump> bumps(Collection<UUID> uuids, Long version) {
+		return uuids.stream().map(uuid -> (VersionBump) new VersionBump() {
+			@Override
+			public String getUuid() {
+				return uuid.toString();
+			}
+
+			@Override
+			public Long getVersion() {
+				return version;
+			}
+		}).toList();
+	}
+
+	private static JobEvent event(UUID jobUuid, String message) {
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		return JobEvent.builder()
+				.uuid(UUID.randomUUID())
+				.message(message)
+				.occurredAt(now)
+				.job(Job.builder().uuid(jobUuid).build())
+				.createdAt(now)
+				.updatedAt(now)
+				.build();
+	}
+
+	private long segmentFiles() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	@Test
+	@DisplayName("Replays segments of a previous process on restart")
+	@SuppressWarnings("unchecked")
+	public void replaysOnRestart() throws Exception {
+		// GIVEN: events journaled by a process that stopped before flushing
+		UUID runUuid = UUID.randomUUID();
+		UUID jobUuid = UUID.randomUUID();
+		JobEventJournal previous = journal(new SimpleMeterRegistry());
+		List<JobEvent> events = List.of(event(jobUuid, "first"), event(jobUuid, "second"), event(jobUuid, "third"));
+		for (JobEvent event : events) {
+			assertThat("Event is acknowledged", previous.tryAppend(runUuid, event), is(true));
+		}
+		previous.stop();
+		verifyNoInteractions(jobEventRepository);
+
+		// WHEN: the journal is restarted and flushed
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		JobEventJournal restarted = journal(meterRegistry);
+		double pendingOnStart = meterRegistry.get("trainhandler.journal.pending").gauge().value();
+		restarted.flush();
+
+		// THEN:
+		ArgumentCaptor<List<JobEvent>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(jobEventRepository).insertAll(inserted.capture());
+		assertThat("Pending events are counted on start", pendingOnStart, is(equalTo(3.0)));
+		assertThat("Events are replayed in order",
+				inserted.getValue().stream().map(JobEvent::getUuid).toList(),
+				is(equalTo(events.stream().map(JobEvent::getUuid).toList())));
+		assertThat("Replayed events carry the job version of the flush",
+				inserted.getValue().stream().map(JobEvent::getVersion).toList(),
+				everyItem(is(equalTo(VERSION))));
+		verify(notificationCoalescer).submit(runUuid, jobUuid);
+		assertThat("Nothing is pending after replay",
+				meterRegistry.get("trainhandler.journal.pending").gauge().value(), is(equalTo(0.0)));
+		assertThat("Only the current segment is left", segmentFiles(), is(equalTo(1L)));
+		restarted.stop();
+	}
+
+	@Test
+	@DisplayName("Acknowledges and replays concurrent appends")
+	@SuppressWarnings("unchecked")
+	public void replaysConcurrentAppends() throws Exception {
+		// GIVEN:
+		UUID runUuid = UUID.randomUUID();
+		JobEventJournal previous = journal(new SimpleMeterRegistry());
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<Boolean>> acknowledgements = new ArrayList<>();
+		Set<UUID> appended = Collections.synchronizedSet(new HashSet<>());
+
+		// WHEN: appending concurrently, flushing in between, and restarting
+		for (int thread = 0; thread < THREADS; thread++) {
+			UUID jobUuid = UUID.randomUUID();
+			acknowledgements.add(executor.submit(() -> {
+				boolean acknowledged = true;
+				for (int index = 0; index < EVENTS_PER_THREAD; index++) {
+					JobEvent event = event(jobUuid, "event " + index);
+					acknowledged &= previous.tryAppend(runUuid, event);
+					appended.add(event.getUuid());
+				}
+				return acknowledged;
+			}));
+		}
+		previous.flush();
+		for (Future<Boolean> acknowledgement : acknowledgements) {
+			assertThat("Every append is acknowledged", acknowledgement.get(), is(true));
+		}
+		executor.shutdown();
+		previous.stop();
+		JobEventJournal restarted = journal(new SimpleMeterRegistry());
+		restarted.flush();
+
+		// THEN: every event is inserted exactly once
+		ArgumentCaptor<List<JobEvent>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(jobEventRepository, atLeastOnce()).insertAll(inserted.capture());
+		List<UUID> insertedUuids = inserted.getAllValues().stream()
+				.flatMap(List::stream)
+				.map(JobEvent::getUuid)
+				.toList();
+		assertThat("No event is inserted twice", new HashSet<>(insertedUuids), hasSize(insertedUuids.size()));
+		assertThat("Every event is inserted", new HashSet<>(insertedUuids), is(equalTo(appended)));
+		restarted.stop();
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * The MIT License
+ * Copyright © 2022 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatatrain.trainhandler.service.station.health;
+
+import org.fairdatatrain.trainhandler.config.DispatcherConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("StationCircuitBreaker")
+public class StationCircuitBreakerTest {
+
+	private final DispatcherConfig config = new DispatcherConfig();
+
+	private final StationCircuitBreaker breaker = new StationCircuitBreaker(config);
+
+	private final UUID station = UUID.randomUUID();
+
+	@BeforeEach
+	public void setUp() {
+		config.getHealth().setFailureThreshold(3);
+		config.getHealth().setOpenDuration(Duration.ofMinutes(1));
+	}
+
+	private void fail(int times) {
+		for (int i = 0; i < times; i++) {
+			breaker.recordFailure(station);
+		}
+	}
+
+	@Test
+	@DisplayName("Stays closed below the failure threshold")
+	public void staysClosedBelowThreshold() {
+		// GIVEN:
+		fail(2);
+
+		// WHEN:
+		boolean allowed = breaker.allowRequest(station);
+
+		// THEN:
+		assertThat("Request is allowed", allowed, is(true));
+		assertThat("Circuit is closed", breaker.getState(station), is(equalTo(CircuitState.CLOSED)));
+	}
+
+	@Test
+	@DisplayName("Success resets consecutive failures")
+	public void successResetsFailures() {
+		// GIVEN:
+		fail(2);
+		breaker.recordSuccess(station);
+
+		// WHEN:
+		fail(2);
+
+		// THEN:
+		assertThat("Circuit is closed", breaker.getState(station), is(equalTo(CircuitState.CLOSED)));
+	}
+
+	@Test
+	@DisplayName("Opens at the failure threshold and refuses requests")
+	public void opensAtThreshold() {
+		// GIVEN:
+		fail(3);
+
+		// WHEN:
+		boolean allowed = breaker.allowRequest(station);
+
+		// THEN:
+		assertThat("Request is refused", allowed, is(false));
+		assertThat("Circuit is open", breaker.getState(station), is(equalTo(CircuitState.OPEN)));
+	}
+
+	@Test
+	@DisplayName("Lets a single trial through after the open duration")
+	public void halfOpensAfterOpenDuration() {
+		// GIVEN:
+		config.getHealth().setOpenDuration(Duration.ZERO);
+		fail(3);
+
+		// WHEN:
+		boolean trial = breaker.allowRequest(station);
+		boolean concurrent = breaker.allowRequest(station);
+
+		// THEN:
+		assertThat("Trial request is allowed", trial, is(true));
+		assertThat("Concurrent request is refused", concurrent, is(false));
+		assertThat("Circuit is half-open", breaker.getState(station), is(equalTo(CircuitState.HALF_OPEN)));
+	}
+
+	@Test
+	@DisplayName("Closes after a successful trial")
+	public void closesAfterSuccessfulTrial() {
+		// GIVEN:
+		config.getHealth().setOpenDuration(Duration.ZERO);
+		fail(3);
+		breaker.allowRequest(station);
+
+		// WHEN:
+		breaker.recordSuccess(station);
+
+		// THEN:
+		assertThat("Circuit is closed", breaker.getState(station), is(equalTo(CircuitState.CLOSED)));
+		assertThat("Requests are allowed", breaker.allowRequest(station), is(true));
+		assertThat("Further requests are allowed", breaker.allowRequest(station), is(true));
+	}
+
+	@Test
+	@DisplayName("Re-opens after a failed trial")
+	public void reopensAfterFailedTrial() {
+		// GIVEN:
+		fail(3);
+		config.getHealth().setOpenDuration(Duration.ZERO);
+		breaker.allowRequest(station);
+		config.getHealth().setOpenDuration(Duration.ofMinutes(1));
+
+		// WHEN:
+		breaker.recordFailure(station);
+
+		// THEN:
+		assertThat("Circuit is open", breaker.getState(station), is(equalTo(CircuitState.OPEN)));
+		assertThat("Request is refused", breaker.allowRequest(station), is(false));
+	}
+}